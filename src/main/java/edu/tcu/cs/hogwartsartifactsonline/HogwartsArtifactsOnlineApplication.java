@@ -1,11 +1,17 @@
 package edu.tcu.cs.hogwartsartifactsonline;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.WorkerIdLeaseRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableCaching
 public class HogwartsArtifactsOnlineApplication {
 
 	public static void main(String[] args) {
@@ -13,8 +19,9 @@ public class HogwartsArtifactsOnlineApplication {
 	}
 
     @Bean
-    public IdWorker idWorker() {
-        return new IdWorker(1,1);
+    public IdWorker idWorker(WorkerIdLeaseRegistry workerIdLeaseRegistry,
+                             @Value("${id-worker.hybrid-clock}") boolean hybridClock) {
+        return workerIdLeaseRegistry.newIdWorker(hybridClock);
     }
 
 }
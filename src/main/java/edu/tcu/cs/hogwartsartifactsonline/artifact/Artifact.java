@@ -1,17 +1,27 @@
 package edu.tcu.cs.hogwartsartifactsonline.artifact;
 
 import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "artifact")
+@Table(indexes = @Index(name = "idx_artifact_owner_id", columnList = "owner_id, id"))
 public class Artifact implements Serializable {
 
     @Id
-    private String id;
+    private Long id;
 
     private String name;
 
@@ -22,14 +32,17 @@ public class Artifact implements Serializable {
     @ManyToOne
     private Wizard owner;
 
+    @Version
+    private int version;
+
     public Artifact() {
     }
 
-    public String getId() {
+    public Long getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(Long id) {
         this.id = id;
     }
 
@@ -64,4 +77,29 @@ public class Artifact implements Serializable {
     public void setOwner(Wizard owner) {
         this.owner = owner;
     }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    // Identity is the id once assigned; the hash code must not change when it is.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Artifact other)) {
+            return false;
+        }
+        return this.id != null && Objects.equals(this.id, other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Artifact.class.hashCode();
+    }
 }
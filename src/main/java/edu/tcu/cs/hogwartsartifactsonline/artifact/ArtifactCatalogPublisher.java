@@ -0,0 +1,284 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogReplica;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogSnapshot;
+import edu.tcu.cs.hogwartsartifactsonline.system.Result;
+import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardChangedEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the {@code GET /artifacts} response as a JSON file and a gzip file, named after a hash of their content
+ * that doubles as a strong ETag, and sends them without going through Hibernate or Jackson: by the connector's
+ * sendfile where Tomcat offers it, otherwise by {@link FileChannel#transferTo}. Last-Modified is the time the
+ * content last changed, since neither table records when a row was updated.
+ * <p>
+ * Every artifact or wizard change moves the catalog to a new generation and schedules a rebuild
+ * {@code artifact.catalog.debounce} later, so that a burst of writes costs one rebuild, done off the request threads.
+ * Until then reads keep getting the last published snapshot under its own strong ETag, so the catalog may lag a
+ * change by the debounce. Only a read that finds no snapshot at all builds one itself.
+ */
+@Component
+public class ArtifactCatalogPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactCatalogPublisher.class);
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Long enough for a request that picked up a superseded snapshot to have opened its file.
+    private static final Duration RETIRED_FILE_GRACE_PERIOD = Duration.ofMinutes(1);
+
+    private final ArtifactService artifactService;
+
+    private final ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter;
+
+    private final CatalogReplica catalogReplica;
+
+    private final ObjectMapper objectMapper;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Duration debounce;
+
+    private final Path directory;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    public ArtifactCatalogPublisher(ArtifactService artifactService,
+                                    ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter,
+                                    CatalogReplica catalogReplica,
+                                    ObjectMapper objectMapper,
+                                    TaskScheduler taskScheduler,
+                                    @Value("${artifact.catalog.debounce}") Duration debounce,
+                                    @Value("${artifact.catalog.directory}") Path parentDirectory) throws IOException {
+        this.artifactService = artifactService;
+        this.artifactToArtifactDtoConverter = artifactToArtifactDtoConverter;
+        this.catalogReplica = catalogReplica;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.debounce = debounce;
+        // A directory of its own, since snapshots of equal content from another instance would share file names.
+        this.directory = Files.createTempDirectory(Files.createDirectories(parentDirectory), "artifact-catalog-");
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Snapshot current = current();
+        boolean gzip = acceptsGzip(request);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified(gzip ? current.gzipEtag() : current.etag(), current.lastModified().toEpochMilli())) {
+            return;
+        }
+        Path file = gzip ? current.gzipFile() : current.jsonFile();
+        long length = gzip ? current.gzipLength() : current.jsonLength();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < length; ) {
+                position += channel.transferTo(position, length - position, target);
+            }
+        }
+    }
+
+    Snapshot current() throws IOException {
+        Snapshot current = this.snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this.rebuildLock) {
+            current = this.snapshot;
+            return current != null ? current : rebuild();
+        }
+    }
+
+    private void refresh() throws IOException {
+        synchronized (this.rebuildLock) {
+            Snapshot current = this.snapshot;
+            if (current == null || current.generation() != this.generation.get()) {
+                rebuild();
+            }
+        }
+    }
+
+    private Snapshot rebuild() throws IOException {
+        // Read before the query: a change committed after this point moves the generation past the snapshot's.
+        long buildGeneration = this.generation.get();
+        CatalogSnapshot catalogSnapshot = this.catalogReplica.current();
+        Collection<ArtifactDto> artifactDtos = catalogSnapshot != null
+                ? catalogSnapshot.artifacts()
+                : this.artifactService.findAll().stream().map(this.artifactToArtifactDtoConverter::convert).toList();
+        byte[] json = this.objectMapper.writeValueAsBytes(new Result(true, StatusCode.SUCCESS, "Find All Success", artifactDtos));
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipped)) {
+            gzipOutputStream.write(json);
+        }
+        String hash = sha256(json);
+        Snapshot previous = this.snapshot;
+        // HTTP dates have no fraction of a second; keeping it would make If-Modified-Since never match.
+        Instant lastModified = previous != null && previous.hash().equals(hash)
+                ? previous.lastModified()
+                : Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Snapshot built = new Snapshot(buildGeneration, hash, lastModified,
+                publish(hash + ".json", json), json.length,
+                publish(hash + ".json.gz", gzipped.toByteArray()), gzipped.size());
+        this.snapshot = built;
+        if (previous != null && !previous.hash().equals(hash)) {
+            this.taskScheduler.schedule(() -> deleteRetired(previous), Instant.now().plus(RETIRED_FILE_GRACE_PERIOD));
+        }
+        return built;
+    }
+
+    private Path publish(String fileName, byte[] content) throws IOException {
+        Path target = this.directory.resolve(fileName);
+        if (Files.notExists(target)) {
+            Path temporary = Files.createTempFile(this.directory, fileName, ".tmp");
+            Files.write(temporary, content);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return target;
+    }
+
+    private void deleteRetired(Snapshot retired) {
+        synchronized (this.rebuildLock) {
+            Snapshot current = this.snapshot;
+            if (current != null && current.hash().equals(retired.hash())) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(retired.jsonFile());
+                Files.deleteIfExists(retired.gzipFile());
+            } catch (IOException e) {
+                LOGGER.warn("Could not delete retired artifact catalog snapshot {}", retired.hash(), e);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArtifactChanged(ArtifactChangedEvent event) {
+        invalidate();
+    }
+
+    // Every artifact in the catalog embeds its owner's name and artifact count.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWizardChanged(WizardChangedEvent event) {
+        invalidate();
+    }
+
+    private void invalidate() {
+        this.generation.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (this.rebuildScheduled.compareAndSet(false, true)) {
+            this.taskScheduler.schedule(this::rebuildInBackground, Instant.now().plus(this.debounce));
+        }
+    }
+
+    private void rebuildInBackground() {
+        // Cleared first, so a change during the rebuild schedules the next one.
+        this.rebuildScheduled.set(false);
+        try {
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not rebuild the artifact catalog snapshot; trying again after the debounce", e);
+            scheduleRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void deleteSnapshots() throws IOException {
+        synchronized (this.rebuildLock) {
+            FileSystemUtils.deleteRecursively(this.directory);
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record Snapshot(long generation, String hash, Instant lastModified, Path jsonFile, long jsonLength, Path gzipFile, long gzipLength) {
+
+        String etag() {
+            return "\"" + this.hash + "\"";
+        }
+
+        String gzipEtag() {
+            return "\"" + this.hash + "-gzip\"";
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by writes that change artifacts: the given artifacts changed and, when {@code ownerId} is set,
+ * so did every artifact that wizard owned before the write.
+ */
+public record ArtifactChangedEvent(Collection<Long> artifactIds, Integer ownerId) {
+
+    public static ArtifactChangedEvent ofArtifacts(Collection<Long> artifactIds) {
+        return new ArtifactChangedEvent(artifactIds, null);
+    }
+
+    public static ArtifactChangedEvent ofOwner(Integer ownerId) {
+        return new ArtifactChangedEvent(List.of(), ownerId);
+    }
+}
@@ -2,14 +2,30 @@ package edu.tcu.cs.hogwartsartifactsonline.artifact;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactDtoToArtifactConverter;
 import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactBulkPatchDto;
 import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactImportReport;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.ArtifactIdCodec;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogReplica;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogSnapshot;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
+import edu.tcu.cs.hogwartsartifactsonline.system.EntityTagCodec;
 import edu.tcu.cs.hogwartsartifactsonline.system.Result;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("${api.endpoint.base-url}/artifacts")
@@ -21,30 +37,78 @@ public class ArtifactController {
 
     private final ArtifactDtoToArtifactConverter artifactDtoToArtifactConverter;
 
+    private final ArtifactIdCodec artifactIdCodec;
+
+    private final ArtifactImportService artifactImportService;
+
+    private final ArtifactResponseCache artifactResponseCache;
+
+    private final ArtifactCatalogPublisher artifactCatalogPublisher;
+
+    private final CatalogReplica catalogReplica;
+
     public ArtifactController(ArtifactService artifactService,
                               ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter,
-                              ArtifactDtoToArtifactConverter artifactDtoToArtifactConverter) {
+                              ArtifactDtoToArtifactConverter artifactDtoToArtifactConverter,
+                              ArtifactIdCodec artifactIdCodec,
+                              ArtifactImportService artifactImportService,
+                              ArtifactResponseCache artifactResponseCache,
+                              ArtifactCatalogPublisher artifactCatalogPublisher,
+                              CatalogReplica catalogReplica) {
         this.artifactService = artifactService;
         this.artifactToArtifactDtoConverter = artifactToArtifactDtoConverter;
         this.artifactDtoToArtifactConverter = artifactDtoToArtifactConverter;
+        this.artifactIdCodec = artifactIdCodec;
+        this.artifactImportService = artifactImportService;
+        this.artifactResponseCache = artifactResponseCache;
+        this.artifactCatalogPublisher = artifactCatalogPublisher;
+        this.catalogReplica = catalogReplica;
     }
 
     @GetMapping("/{artifactId}")
-    public Result findArtifactById(@PathVariable String artifactId) {
-        Artifact foundArtifact = this.artifactService.findById(artifactId);
-        ArtifactDto artifactDto = this.artifactToArtifactDtoConverter.convert(foundArtifact);
-        return new Result(true, StatusCode.SUCCESS, "Find One Success", artifactDto);
+    public void findArtifactById(@PathVariable String artifactId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        this.artifactResponseCache.write(this.artifactIdCodec.decode(artifactId), request, response);
     }
 
     @GetMapping
-    public Result findAllArtifacts() {
-        List<Artifact> foundArtifacts = this.artifactService.findAll();
-        List<ArtifactDto> artifactDtos = foundArtifacts.stream()
-                .map(this.artifactToArtifactDtoConverter::convert)
-                .collect(Collectors.toList());
+    public void findAllArtifacts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        this.artifactCatalogPublisher.write(request, response);
+    }
+
+    // ownerId=null lists the unassigned artifacts.
+    @GetMapping(params = "ownerId")
+    public Result findArtifactsByOwner(@RequestParam String ownerId, @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+        if (snapshot != null) {
+            Page<ArtifactDto> artifactDtos = snapshot.artifactsOwnedBy(parseOwnerId(ownerId), pageable);
+            if (artifactDtos != null) {
+                return new Result(true, StatusCode.SUCCESS, "Find All Success", artifactDtos);
+            }
+        }
+        Page<Artifact> foundArtifacts = this.artifactService.findAllByOwner(parseOwnerId(ownerId), pageable);
+        Page<ArtifactDto> artifactDtos = foundArtifacts.map(this.artifactToArtifactDtoConverter::convert);
         return new Result(true, StatusCode.SUCCESS, "Find All Success", artifactDtos);
     }
 
+    private static Integer parseOwnerId(String ownerId) {
+        if ("null".equals(ownerId)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(ownerId);
+        } catch (NumberFormatException e) {
+            throw new ObjectNotFoundException("wizard", ownerId);
+        }
+    }
+
+    @GetMapping("/page")
+    public Result findArtifactPage(@RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "20") int size) {
+        CursorPage<Artifact> foundPage = this.artifactService.findPage(cursor, size);
+        CursorPage<ArtifactDto> artifactDtoPage = foundPage.map(this.artifactToArtifactDtoConverter::convert);
+        return new Result(true, StatusCode.SUCCESS, "Find Page Success", artifactDtoPage);
+    }
+
     @PostMapping
     public Result addArtifact(@Valid @RequestBody ArtifactDto artifactDto) {
         Artifact newArtifact = this.artifactDtoToArtifactConverter.convert(artifactDto);
@@ -53,17 +117,56 @@ public class ArtifactController {
         return new Result(true, StatusCode.SUCCESS, "Add Success", savedArtifactDto);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Result importArtifacts(InputStream body, HttpServletResponse response) throws IOException {
+        ArtifactImportReport report = this.artifactImportService.importArtifacts(body);
+        if (!report.completed()) {
+            // The rows read before the malformed one stay imported; the report says how many.
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return new Result(false, StatusCode.INVALID_ARGUMENT, "Import stopped at malformed JSON, see data for details", report);
+        }
+        return new Result(true, StatusCode.SUCCESS, "Import Success", report);
+    }
+
     @PutMapping("/{artifactId}")
-    public Result updateArtifact(@PathVariable String artifactId, @Valid @RequestBody ArtifactDto artifactDto) {
+    public Result updateArtifact(@PathVariable String artifactId, @Valid @RequestBody ArtifactDto artifactDto,
+                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                 HttpServletResponse response) {
         Artifact update = this.artifactDtoToArtifactConverter.convert(artifactDto);
-        Artifact updatedArtifact = this.artifactService.update(artifactId, update);
+        Artifact updatedArtifact = this.artifactService.update(this.artifactIdCodec.decode(artifactId), update, EntityTagCodec.decodeIfMatch(ifMatch));
+        response.setHeader(HttpHeaders.ETAG, EntityTagCodec.encode(updatedArtifact.getVersion(),
+                updatedArtifact.getOwner() != null ? updatedArtifact.getOwner().getVersion() : null));
         ArtifactDto updatedArtifactDto = this.artifactToArtifactDtoConverter.convert(updatedArtifact);
         return new Result(true, StatusCode.SUCCESS, "Update Success", updatedArtifactDto);
     }
 
     @DeleteMapping("/{artifactId}")
     public Result deleteArtifact(@PathVariable String artifactId) {
-        this.artifactService.delete(artifactId);
+        this.artifactService.delete(this.artifactIdCodec.decode(artifactId));
         return new Result(true, StatusCode.SUCCESS, "Delete Success");
     }
+
+    @DeleteMapping(params = "ids")
+    public Result deleteArtifacts(@RequestParam List<String> ids) {
+        int deleted = this.artifactService.deleteAll(this.artifactIdCodec.decodeAll(ids));
+        return new Result(true, StatusCode.SUCCESS, "Delete Success", deleted);
+    }
+
+    @DeleteMapping(params = "ownerId")
+    public Result deleteArtifactsByOwner(@RequestParam Integer ownerId) {
+        int deleted = this.artifactService.deleteAllByOwner(ownerId);
+        return new Result(true, StatusCode.SUCCESS, "Delete Success", deleted);
+    }
+
+    @PatchMapping
+    public Result patchArtifacts(@Valid @RequestBody ArtifactBulkPatchDto artifactBulkPatchDto) {
+        Artifact changes = new Artifact();
+        changes.setName(artifactBulkPatchDto.name());
+        changes.setDescription(artifactBulkPatchDto.description());
+        changes.setImageUrl(artifactBulkPatchDto.imageUrl());
+        int updated = artifactBulkPatchDto.ownerId() != null
+                ? this.artifactService.patchAllByOwner(artifactBulkPatchDto.ownerId(), changes)
+                : this.artifactService.patchAll(this.artifactIdCodec.decodeAll(artifactBulkPatchDto.ids()), changes);
+        return new Result(true, StatusCode.SUCCESS, "Update Success", updated);
+    }
 }
@@ -0,0 +1,108 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogReplica;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogSnapshot;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardDtoCache;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Read-through cache of {@link ArtifactDto}s by artifact id, sized and expired by {@code spring.cache.caffeine.spec}.
+ * <p>
+ * The owner is not served from the artifact entry: only its id is used, and the owner itself comes from
+ * {@link WizardDtoCache}. Renaming a wizard or changing its artifact count therefore reaches every cached
+ * artifact it owns by evicting a single wizard entry. A change to every artifact of one owner evicts the entries
+ * that {@link ArtifactOwnerIndex} lists for that owner.
+ * <p>
+ * While the {@link CatalogReplica} is loaded, artifacts are read from it and this cache is bypassed.
+ */
+@Component
+public class ArtifactDtoCache {
+
+    public static final String CACHE_NAME = "artifacts";
+
+    private final Cache<Long, ArtifactDto> cache;
+
+    private final ArtifactOwnerIndex ownerIndex = new ArtifactOwnerIndex();
+
+    private final ArtifactService artifactService;
+
+    private final ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter;
+
+    private final WizardDtoCache wizardDtoCache;
+
+    private final CatalogReplica catalogReplica;
+
+    @SuppressWarnings("unchecked")
+    public ArtifactDtoCache(CaffeineCacheManager cacheManager,
+                            @Value("${spring.cache.caffeine.spec}") String cacheSpec,
+                            ArtifactService artifactService,
+                            ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter,
+                            WizardDtoCache wizardDtoCache,
+                            CatalogReplica catalogReplica) {
+        // Built here rather than by the cache manager, which cannot add a listener. An eviction listener runs inside
+        // the removal of the key, so it cannot unindex an entry loaded again right after.
+        this.cache = Caffeine.from(cacheSpec)
+                .<Long, ArtifactDto>evictionListener((artifactId, artifactDto, cause) -> this.ownerIndex.remove(ownerIdOf(artifactDto), artifactId))
+                .build();
+        cacheManager.registerCustomCache(CACHE_NAME, (Cache<Object, Object>) (Cache<?, ?>) this.cache);
+        this.artifactService = artifactService;
+        this.artifactToArtifactDtoConverter = artifactToArtifactDtoConverter;
+        this.wizardDtoCache = wizardDtoCache;
+        this.catalogReplica = catalogReplica;
+    }
+
+    public ArtifactDto get(Long artifactId) {
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+        if (snapshot != null) {
+            return snapshot.artifact(artifactId);
+        }
+        ArtifactDto artifactDto = this.cache.get(artifactId, this::loadAndIndex);
+        if (artifactDto.owner() == null) {
+            return artifactDto;
+        }
+        WizardDto owner;
+        try {
+            owner = this.wizardDtoCache.get(artifactDto.owner().id());
+        } catch (ObjectNotFoundException e) {
+            // The owner was deleted and this entry's eviction has not run yet.
+            this.cache.invalidate(artifactId);
+            return load(artifactId);
+        }
+        return new ArtifactDto(artifactDto.id(), artifactDto.name(), artifactDto.description(), artifactDto.imageUrl(), owner, artifactDto.version());
+    }
+
+    private ArtifactDto load(Long artifactId) {
+        return this.artifactToArtifactDtoConverter.convert(this.artifactService.findById(artifactId));
+    }
+
+    private ArtifactDto loadAndIndex(Long artifactId) {
+        ArtifactDto artifactDto = load(artifactId);
+        this.ownerIndex.add(ownerIdOf(artifactDto), artifactId);
+        return artifactDto;
+    }
+
+    private static Integer ownerIdOf(ArtifactDto artifactDto) {
+        return artifactDto == null || artifactDto.owner() == null ? null : artifactDto.owner().id();
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArtifactChanged(ArtifactChangedEvent event) {
+        this.cache.invalidateAll(event.artifactIds());
+        if (event.ownerId() != null) {
+            this.cache.invalidateAll(this.ownerIndex.removeOwners(List.of(event.ownerId())));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactImportReport;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams artifacts from a JSON array or from newline-delimited JSON into the database.
+ * <p>
+ * Rows are read one at a time and written in chunks of {@code artifact.import.chunk-size}, each chunk in its own
+ * transaction with ids reserved in one block, so memory use does not grow with the size of the upload. Hibernate
+ * sends the inserts of a chunk as JDBC batches ({@code hibernate.jdbc.batch_size}); the persistence context is
+ * flushed and cleared after every batch. Invalid rows are reported and skipped, and chunks already written stay
+ * written if a later row turns out not to be JSON at all.
+ */
+@Service
+public class ArtifactImportService {
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectReader artifactDtoReader;
+
+    private final Validator validator;
+
+    private final IdWorker idWorker;
+
+    private final int chunkSize;
+
+    private final int batchSize;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ArtifactImportService(EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 IdWorker idWorker,
+                                 @Value("${artifact.import.chunk-size}") int chunkSize,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.artifactDtoReader = objectMapper.readerFor(ArtifactDto.class);
+        this.validator = validator;
+        this.idWorker = idWorker;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public ArtifactImportReport importArtifacts(InputStream body) throws IOException {
+        long row = 0;
+        long imported = 0;
+        long rejected = 0;
+        List<ArtifactImportReport.RowError> errors = new ArrayList<>();
+        List<Artifact> chunk = new ArrayList<>(this.chunkSize);
+        boolean completed = true;
+
+        // A MappingIterator reads both a root-level array and a whitespace-separated sequence of objects.
+        try (MappingIterator<ArtifactDto> rows = this.artifactDtoReader.readValues(body)) {
+            while (true) {
+                ArtifactDto artifactDto;
+                // Counted before reading, so that malformed JSON is reported at the row it was found in.
+                row++;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    artifactDto = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    if (e.getCause() instanceof JsonParseException malformed) {
+                        // Binding wraps malformed text inside the row; there is no end of the row to skip to.
+                        rejected++;
+                        addError(errors, row, Map.of("row", "Malformed JSON, import stopped: " + malformed.getOriginalMessage()));
+                        completed = false;
+                        break;
+                    }
+                    // The iterator skips to the end of the offending value, so the next row can still be read.
+                    rejected++;
+                    addError(errors, row, Map.of("row", e.getOriginalMessage()));
+                    continue;
+                } catch (JsonParseException e) {
+                    rejected++;
+                    addError(errors, row, Map.of("row", "Malformed JSON, import stopped: " + e.getOriginalMessage()));
+                    completed = false;
+                    break;
+                }
+
+                Map<String, String> violations = validate(artifactDto);
+                if (!violations.isEmpty()) {
+                    rejected++;
+                    addError(errors, row, violations);
+                    continue;
+                }
+                chunk.add(toArtifact(artifactDto));
+                if (chunk.size() == this.chunkSize) {
+                    imported += persist(chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += persist(chunk);
+        }
+        return new ArtifactImportReport(completed, imported, rejected, errors);
+    }
+
+    private Map<String, String> validate(ArtifactDto artifactDto) {
+        Set<ConstraintViolation<ArtifactDto>> violations = this.validator.validate(artifactDto);
+        Map<String, String> errors = new HashMap<>(violations.size());
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors;
+    }
+
+    /**
+     * Ids and owners in the upload are ignored, as they are for a single POST.
+     */
+    private static Artifact toArtifact(ArtifactDto artifactDto) {
+        Artifact artifact = new Artifact();
+        artifact.setName(artifactDto.name());
+        artifact.setDescription(artifactDto.description());
+        artifact.setImageUrl(artifactDto.imageUrl());
+        return artifact;
+    }
+
+    private static void addError(List<ArtifactImportReport.RowError> errors, long row, Map<String, String> rowErrors) {
+        if (errors.size() < ArtifactImportReport.MAX_REPORTED_ERRORS) {
+            errors.add(new ArtifactImportReport.RowError(row, rowErrors));
+        }
+    }
+
+    private int persist(List<Artifact> artifacts) {
+        long[] ids = this.idWorker.nextIds(artifacts.size());
+        this.transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < artifacts.size(); i++) {
+                Artifact artifact = artifacts.get(i);
+                artifact.setId(ids[i]);
+                this.entityManager.persist(artifact);
+                if ((i + 1) % this.batchSize == 0) {
+                    this.entityManager.flush();
+                    this.entityManager.clear();
+                }
+            }
+            this.entityManager.flush();
+            this.entityManager.clear();
+            this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(Arrays.stream(ids).boxed().toList()));
+        });
+        return artifacts.size();
+    }
+}
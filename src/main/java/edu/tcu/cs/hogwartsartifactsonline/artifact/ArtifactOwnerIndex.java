@@ -0,0 +1,56 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Artifact ids by owner id, kept next to a cache keyed by artifact id so that dropping everything a wizard owns
+ * invalidates that wizard's keys instead of scanning the whole cache.
+ * <p>
+ * An id is added when its entry is loaded and removed when the cache evicts the entry or together with its owner. An
+ * entry invalidated on its own stays indexed, so the index may still name an artifact that was deleted or given to
+ * another wizard since. Invalidating such a key again is harmless.
+ */
+final class ArtifactOwnerIndex {
+
+    private final Map<Integer, Set<Long>> artifactIds = new ConcurrentHashMap<>();
+
+    void add(Integer ownerId, Long artifactId) {
+        if (ownerId == null) {
+            return;
+        }
+        // Added inside compute, so it cannot land in a set that removeOwners has already taken.
+        this.artifactIds.compute(ownerId, (id, ids) -> {
+            Set<Long> owned = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            owned.add(artifactId);
+            return owned;
+        });
+    }
+
+    void remove(Integer ownerId, Long artifactId) {
+        if (ownerId == null) {
+            return;
+        }
+        this.artifactIds.computeIfPresent(ownerId, (id, ids) -> {
+            ids.remove(artifactId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Forgets the given owners and returns the ids of the artifacts they were indexed with.
+     */
+    Set<Long> removeOwners(Collection<Integer> ownerIds) {
+        Set<Long> removed = new HashSet<>();
+        for (Integer ownerId : ownerIds) {
+            Set<Long> owned = this.artifactIds.remove(ownerId);
+            if (owned != null) {
+                removed.addAll(owned);
+            }
+        }
+        return removed;
+    }
+}
@@ -1,8 +1,71 @@
 package edu.tcu.cs.hogwartsartifactsonline.artifact;
 
+import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface ArtifactRepository extends JpaRepository<Artifact, String> {
+public interface ArtifactRepository extends JpaRepository<Artifact, Long> {
+
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select a from Artifact a")
+    List<Artifact> findAllWithOwner();
+
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Artifact> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "owner")
+    Page<Artifact> findByOwnerId(Integer ownerId, Pageable pageable);
+
+    Page<Artifact> findByOwnerIsNull(Pageable pageable);
+
+    @Query("select a.id from Artifact a where a.id in :artifactIds")
+    List<Long> findIdsByIdIn(Collection<Long> artifactIds);
+
+    @Query("select distinct a.owner.id from Artifact a where a.id in :artifactIds and a.owner is not null")
+    List<Integer> findOwnerIdsByIdIn(Collection<Long> artifactIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Artifact a set a.owner = :owner where a.id in :artifactIds")
+    int assignAllToOwner(Collection<Long> artifactIds, Wizard owner);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Artifact a set a.owner = null where a.owner.id = :ownerId")
+    int unassignAllFromOwner(Integer ownerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Artifact a set a.owner = :newOwner where a.owner.id = :ownerId")
+    int transferAllFromOwner(Integer ownerId, Wizard newOwner);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Artifact a where a.id in :artifactIds")
+    int deleteByIdIn(Collection<Long> artifactIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Artifact a where a.owner.id = :ownerId")
+    int deleteByOwnerId(Integer ownerId);
+
+    // A null argument leaves that column as it is.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Artifact a set a.name = coalesce(:name, a.name), a.description = coalesce(:description, a.description), " +
+            "a.imageUrl = coalesce(:imageUrl, a.imageUrl) where a.id in :artifactIds")
+    int patchByIdIn(Collection<Long> artifactIds, String name, String description, String imageUrl);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Artifact a set a.name = coalesce(:name, a.name), a.description = coalesce(:description, a.description), " +
+            "a.imageUrl = coalesce(:imageUrl, a.imageUrl) where a.owner.id = :ownerId")
+    int patchByOwnerId(Integer ownerId, String name, String description, String imageUrl);
 }
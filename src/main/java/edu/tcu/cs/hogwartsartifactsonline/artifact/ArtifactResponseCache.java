@@ -0,0 +1,120 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.system.EntityTagCodec;
+import edu.tcu.cs.hogwartsartifactsonline.system.Result;
+import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardChangedEvent;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache of the complete {@code GET /artifacts/{id}} response body, kept as UTF-8 JSON in direct buffers so that
+ * a large cache adds nothing to the heap the collector has to trace. A hit is copied to the servlet output stream
+ * through a per-thread chunk without building the DTO, the {@link Result} or a Jackson generator. A request whose
+ * {@code If-None-Match} matches the entry's ETag is answered 304 without touching the body.
+ * <p>
+ * Entries are built from {@link ArtifactDtoCache} and dropped after it, once the artifact or its owner changes.
+ */
+@Component
+public class ArtifactResponseCache {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[CHUNK_SIZE]);
+
+    private final Cache<Long, Entry> cache;
+
+    private final ArtifactOwnerIndex ownerIndex = new ArtifactOwnerIndex();
+
+    private final ArtifactDtoCache artifactDtoCache;
+
+    private final ObjectMapper objectMapper;
+
+    public ArtifactResponseCache(ArtifactDtoCache artifactDtoCache, ObjectMapper objectMapper,
+                                 @Value("${artifact.response-cache.max-size}") DataSize maxSize,
+                                 @Value("${artifact.response-cache.expire-after-write}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<Long, Entry>weigher((artifactId, entry) -> entry.body().capacity())
+                .expireAfterWrite(expireAfterWrite)
+                .evictionListener((artifactId, entry, cause) -> {
+                    if (entry != null) {
+                        this.ownerIndex.remove(entry.ownerId(), artifactId);
+                    }
+                })
+                .build();
+        this.artifactDtoCache = artifactDtoCache;
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(Long artifactId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Entry entry = this.cache.get(artifactId, this::load);
+        if (new ServletWebRequest(request, response).checkNotModified(entry.etag())) {
+            return;
+        }
+        ByteBuffer body = entry.body();
+        int length = body.capacity();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(length);
+        ServletOutputStream outputStream = response.getOutputStream();
+        byte[] chunk = CHUNK.get();
+        for (int offset = 0; offset < length; offset += CHUNK_SIZE) {
+            int chunkLength = Math.min(CHUNK_SIZE, length - offset);
+            body.get(offset, chunk, 0, chunkLength);
+            outputStream.write(chunk, 0, chunkLength);
+        }
+    }
+
+    private Entry load(Long artifactId) {
+        ArtifactDto artifactDto = this.artifactDtoCache.get(artifactId);
+        byte[] json;
+        try {
+            json = this.objectMapper.writeValueAsBytes(new Result(true, StatusCode.SUCCESS, "Find One Success", artifactDto));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        ByteBuffer body = ByteBuffer.allocateDirect(json.length).put(json);
+        String etag = EntityTagCodec.encode(artifactDto.version(), artifactDto.owner() == null ? null : artifactDto.owner().version());
+        Integer ownerId = artifactDto.owner() == null ? null : artifactDto.owner().id();
+        this.ownerIndex.add(ownerId, artifactId);
+        return new Entry(body, etag, ownerId);
+    }
+
+    // Runs after the DTO caches, otherwise a reload in between could rebuild an entry from their stale state.
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArtifactChanged(ArtifactChangedEvent event) {
+        this.cache.invalidateAll(event.artifactIds());
+        if (event.ownerId() != null) {
+            this.cache.invalidateAll(this.ownerIndex.removeOwners(List.of(event.ownerId())));
+        }
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWizardChanged(WizardChangedEvent event) {
+        this.cache.invalidateAll(this.ownerIndex.removeOwners(event.wizardIds()));
+    }
+
+    private record Entry(ByteBuffer body, String etag, Integer ownerId) {
+    }
+}
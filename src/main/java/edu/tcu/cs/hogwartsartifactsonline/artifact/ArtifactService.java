@@ -1,8 +1,20 @@
 package edu.tcu.cs.hogwartsartifactsonline.artifact;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorCodec;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.InvalidCursorException;
 import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.PreconditionFailedException;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardChangedEvent;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,43 +23,142 @@ import java.util.List;
 @Transactional
 public class ArtifactService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ArtifactRepository artifactRepository;
 
+    private final WizardRepository wizardRepository;
+
     private final IdWorker idWorker;
 
-    public ArtifactService(ArtifactRepository artifactRepository, IdWorker idWorker) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean largeOwnership;
+
+    public ArtifactService(ArtifactRepository artifactRepository, WizardRepository wizardRepository, IdWorker idWorker,
+                           ApplicationEventPublisher eventPublisher, @Value("${wizard.large-ownership}") boolean largeOwnership) {
         this.artifactRepository = artifactRepository;
+        this.wizardRepository = wizardRepository;
         this.idWorker = idWorker;
+        this.eventPublisher = eventPublisher;
+        this.largeOwnership = largeOwnership;
     }
 
-    public Artifact findById(String artifactId) {
+    public Artifact findById(Long artifactId) {
         return this.artifactRepository.findById(artifactId)
                 .orElseThrow(() -> new ObjectNotFoundException("artifact", artifactId));
     }
 
     public List<Artifact> findAll() {
-        return this.artifactRepository.findAll();
+        return this.artifactRepository.findAllWithOwner();
+    }
+
+    public CursorPage<Artifact> findPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long afterId = cursor == null || cursor.isEmpty() ? Long.MIN_VALUE : decodeCursor(cursor);
+
+        // Fetch one extra row to learn whether another page follows without a count query.
+        List<Artifact> artifacts = this.artifactRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize + 1));
+        if (artifacts.size() <= pageSize) {
+            return new CursorPage<>(artifacts, null);
+        }
+        List<Artifact> page = artifacts.subList(0, pageSize);
+        return new CursorPage<>(page, CursorCodec.encode(page.get(pageSize - 1).getId().toString()));
+    }
+
+    /**
+     * Returns one page of the artifacts owned by the given wizard, or of the unassigned artifacts when
+     * {@code ownerId} is null. Both are served from the owner index without touching Wizard.artifacts.
+     */
+    public Page<Artifact> findAllByOwner(Integer ownerId, Pageable pageable) {
+        return ownerId == null
+                ? this.artifactRepository.findByOwnerIsNull(pageable)
+                : this.artifactRepository.findByOwnerId(ownerId, pageable);
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(CursorCodec.decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(cursor);
+        }
     }
 
     public Artifact save(Artifact newArtifact) {
-        newArtifact.setId(idWorker.nextId() + "");
-        return this.artifactRepository.save(newArtifact);
+        newArtifact.setId(idWorker.nextId());
+        Artifact savedArtifact = this.artifactRepository.save(newArtifact);
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(List.of(savedArtifact.getId())));
+        return savedArtifact;
     }
 
-    public Artifact update(String artifactId, Artifact artifact) {
-        return this.artifactRepository.findById(artifactId)
+    /**
+     * Replaces the artifact's name, description and imageUrl, provided it is still at {@code expectedVersion}
+     * when that is not null.
+     */
+    public Artifact update(Long artifactId, Artifact artifact, Integer expectedVersion) {
+        Artifact updatedArtifact = this.artifactRepository.findById(artifactId)
                 .map(oldArtifact -> {
+                    if (expectedVersion != null && expectedVersion != oldArtifact.getVersion()) {
+                        throw new PreconditionFailedException("artifact", artifactId);
+                    }
                     oldArtifact.setName(artifact.getName());
                     oldArtifact.setDescription(artifact.getDescription());
                     oldArtifact.setImageUrl(artifact.getImageUrl());
                     return this.artifactRepository.save(oldArtifact);
                 })
                 .orElseThrow(() -> new ObjectNotFoundException("artifact", artifactId));
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(List.of(artifactId)));
+        return updatedArtifact;
     }
 
-    public void delete(String artifactId) {
-        this.artifactRepository.findById(artifactId)
+    public void delete(Long artifactId) {
+        if (this.largeOwnership) {
+            // Adjusts the owner's count with a statement instead of loading its artifact list.
+            if (deleteAll(List.of(artifactId)) == 0) {
+                throw new ObjectNotFoundException("artifact", artifactId);
+            }
+            return;
+        }
+        Artifact artifactToBeDeleted = this.artifactRepository.findById(artifactId)
                 .orElseThrow(() -> new ObjectNotFoundException("artifact", artifactId));
-        this.artifactRepository.deleteById(artifactId);
+        Wizard owner = artifactToBeDeleted.getOwner();
+        if (owner != null) {
+            owner.removeArtifact(artifactToBeDeleted);
+            this.eventPublisher.publishEvent(new WizardChangedEvent(List.of(owner.getId())));
+        }
+        this.artifactRepository.delete(artifactToBeDeleted);
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(List.of(artifactId)));
+    }
+
+    public int deleteAll(List<Long> artifactIds) {
+        List<Integer> ownerIds = this.artifactRepository.findOwnerIdsByIdIn(artifactIds);
+        this.wizardRepository.releaseArtifacts(artifactIds);
+        int deleted = this.artifactRepository.deleteByIdIn(artifactIds);
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(artifactIds));
+        this.eventPublisher.publishEvent(new WizardChangedEvent(ownerIds));
+        return deleted;
+    }
+
+    public int deleteAllByOwner(Integer ownerId) {
+        this.wizardRepository.releaseAllArtifacts(ownerId);
+        int deleted = this.artifactRepository.deleteByOwnerId(ownerId);
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofOwner(ownerId));
+        this.eventPublisher.publishEvent(new WizardChangedEvent(List.of(ownerId)));
+        return deleted;
+    }
+
+    /**
+     * Sets the non-null name, description and imageUrl of {@code changes} on all the given artifacts.
+     */
+    public int patchAll(List<Long> artifactIds, Artifact changes) {
+        int updated = this.artifactRepository.patchByIdIn(artifactIds, changes.getName(), changes.getDescription(), changes.getImageUrl());
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(artifactIds));
+        return updated;
+    }
+
+    public int patchAllByOwner(Integer ownerId, Artifact changes) {
+        int updated = this.artifactRepository.patchByOwnerId(ownerId, changes.getName(), changes.getDescription(), changes.getImageUrl());
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofOwner(ownerId));
+        return updated;
     }
 }
@@ -2,15 +2,23 @@ package edu.tcu.cs.hogwartsartifactsonline.artifact.converter;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
 import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.ArtifactIdCodec;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ArtifactDtoToArtifactConverter implements Converter<ArtifactDto, Artifact> {
+
+    private final ArtifactIdCodec artifactIdCodec;
+
+    public ArtifactDtoToArtifactConverter(ArtifactIdCodec artifactIdCodec) {
+        this.artifactIdCodec = artifactIdCodec;
+    }
+
     @Override
     public Artifact convert(ArtifactDto source) {
         Artifact artifact = new Artifact();
-        artifact.setId(source.id());
+        artifact.setId(source.id() != null ? this.artifactIdCodec.decode(source.id()) : null);
         artifact.setName(source.name());
         artifact.setDescription(source.description());
         artifact.setImageUrl(source.imageUrl());
@@ -2,6 +2,7 @@ package edu.tcu.cs.hogwartsartifactsonline.artifact.converter;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
 import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.ArtifactIdCodec;
 import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardToWizardDtoConverter;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
@@ -11,15 +12,20 @@ public class ArtifactToArtifactDtoConverter implements Converter<Artifact, Artif
 
     private final WizardToWizardDtoConverter wizardToWizardDtoConverter;
 
-    public ArtifactToArtifactDtoConverter(WizardToWizardDtoConverter wizardToWizardDtoConverter) {
+    private final ArtifactIdCodec artifactIdCodec;
+
+    public ArtifactToArtifactDtoConverter(WizardToWizardDtoConverter wizardToWizardDtoConverter, ArtifactIdCodec artifactIdCodec) {
         this.wizardToWizardDtoConverter = wizardToWizardDtoConverter;
+        this.artifactIdCodec = artifactIdCodec;
     }
 
     @Override
     public ArtifactDto convert(Artifact source) {
-        return new ArtifactDto(source.getId(), source.getName(), source.getDescription(), source.getImageUrl(),
+        return new ArtifactDto(this.artifactIdCodec.encode(source.getId()), source.getName(), source.getDescription(), source.getImageUrl(),
                                 source.getOwner() != null
                                         ? this.wizardToWizardDtoConverter.convert(source.getOwner())
-                                        : null);
+                                        : null,
+                                source.getVersion());
     }
+
 }
@@ -0,0 +1,33 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Pattern;
+
+import java.util.List;
+
+/**
+ * Selects artifacts either by {@code ids} or by {@code ownerId} and sets the fields that are not null. A field that is
+ * present must not be blank, as {@link ArtifactDto} requires on a PUT.
+ */
+public record ArtifactBulkPatchDto(List<String> ids,
+                                   Integer ownerId,
+                                   @Pattern(regexp = NOT_BLANK, message = "name must not be blank")
+                                   String name,
+                                   @Pattern(regexp = NOT_BLANK, message = "description must not be blank")
+                                   String description,
+                                   @Pattern(regexp = NOT_BLANK, message = "imageUrl must not be blank")
+                                   String imageUrl) {
+
+    // @Pattern accepts null, so a field that is left out stays optional.
+    private static final String NOT_BLANK = "(?s).*\\S.*";
+
+    @AssertTrue(message = "exactly one of ids or ownerId is required")
+    public boolean isSelectionValid() {
+        return (this.ids == null || this.ids.isEmpty()) != (this.ownerId == null);
+    }
+
+    @AssertTrue(message = "at least one of name, description or imageUrl is required")
+    public boolean isChangeValid() {
+        return this.name != null || this.description != null || this.imageUrl != null;
+    }
+}
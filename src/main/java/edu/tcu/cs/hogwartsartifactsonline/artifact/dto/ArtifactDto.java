@@ -1,8 +1,12 @@
 package edu.tcu.cs.hogwartsartifactsonline.artifact.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
 import jakarta.validation.constraints.NotEmpty;
 
+/**
+ * The {@code version} is not part of the body; it is sent as the ETag.
+ */
 public record ArtifactDto(String id,
                           @NotEmpty(message = "name is required")
                           String name,
@@ -10,5 +14,7 @@ public record ArtifactDto(String id,
                           String description,
                           @NotEmpty(message = "imageUrl is required")
                           String imageUrl,
-                          WizardDto owner) {
+                          WizardDto owner,
+                          @JsonIgnore
+                          Integer version) {
 }
@@ -0,0 +1,20 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1 in the order they appear in the request body;
+ * {@code errors} lists at most {@link #MAX_REPORTED_ERRORS} of the rejected rows. {@code completed} is false when
+ * malformed JSON stopped the import, in which case the rows after it were never read.
+ */
+public record ArtifactImportReport(boolean completed,
+                                   long imported,
+                                   long rejected,
+                                   List<RowError> errors) {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    public record RowError(long row, Map<String, String> errors) {
+    }
+}
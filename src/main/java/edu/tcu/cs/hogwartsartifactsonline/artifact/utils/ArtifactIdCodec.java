@@ -0,0 +1,79 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
+
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Renders numeric artifact ids for the API and parses them back. {@code decimal} keeps the format existing
+ * clients already use; {@code base62} shortens a 19 digit snowflake id to 11 URL-safe characters.
+ */
+@Component
+public class ArtifactIdCodec {
+
+    public enum Format {
+        DECIMAL, BASE62
+    }
+
+    private static final String BASE62_DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static final int BASE62_MAX_LENGTH = 11;
+
+    private final Format format;
+
+    public ArtifactIdCodec(@Value("${artifact.id.api-format:decimal}") Format format) {
+        this.format = format;
+    }
+
+    public String encode(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return this.format == Format.BASE62 ? toBase62(id) : Long.toString(id);
+    }
+
+    /**
+     * An id that cannot be parsed cannot name an existing artifact, so it is reported as not found.
+     */
+    public Long decode(String apiId) {
+        try {
+            return this.format == Format.BASE62 ? fromBase62(apiId) : Long.parseLong(apiId);
+        } catch (IllegalArgumentException e) {
+            throw new ObjectNotFoundException("artifact", apiId);
+        }
+    }
+
+    public List<Long> decodeAll(List<String> apiIds) {
+        return apiIds.stream().map(this::decode).toList();
+    }
+
+    static String toBase62(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Artifact ids are never negative: " + id);
+        }
+        char[] digits = new char[BASE62_MAX_LENGTH];
+        int position = digits.length;
+        do {
+            digits[--position] = BASE62_DIGITS.charAt((int) (id % 62));
+            id /= 62;
+        } while (id > 0);
+        return new String(digits, position, digits.length - position);
+    }
+
+    static long fromBase62(String apiId) {
+        if (apiId == null || apiId.isEmpty() || apiId.length() > BASE62_MAX_LENGTH) {
+            throw new IllegalArgumentException("Not a base62 artifact id: " + apiId);
+        }
+        long id = 0;
+        for (int i = 0; i < apiId.length(); i++) {
+            int digit = BASE62_DIGITS.indexOf(apiId.charAt(i));
+            if (digit < 0 || id > (Long.MAX_VALUE - digit) / 62) {
+                throw new IllegalArgumentException("Not a base62 artifact id: " + apiId);
+            }
+            id = id * 62 + digit;
+        }
+        return id;
+    }
+}
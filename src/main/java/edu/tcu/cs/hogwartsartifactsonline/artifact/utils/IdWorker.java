@@ -3,10 +3,26 @@ package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
 import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * This piece of code is from the Internet. The quality is unknown.
- * Only for demoing purpose. Use with caution!
+ * Snowflake-style id generator: 41 bits of milliseconds since {@code twepoch}, 5 bits of datacenter id,
+ * 5 bits of worker id and a 12 bit per-millisecond sequence.
+ * <p>
+ * The last issued timestamp and sequence are packed into a single {@link AtomicLong}, so concurrent callers
+ * reserve ids with a compare-and-set instead of serializing on a monitor.
+ * <p>
+ * With {@code hybridClock} enabled the timestamp part behaves like a hybrid logical clock: it follows the wall
+ * clock while the wall clock is ahead, and otherwise keeps counting from the last issued id. A clock that
+ * steps backwards, or a millisecond whose sequence is used up, then does not block or fail id generation.
+ * <p>
+ * A worker whose datacenter/worker ids come from a {@link WorkerIdLeaseRegistry} lease only issues ids while the
+ * lease is valid, and only with timestamps up to the high-water mark recorded in it, so that the next holder of the
+ * slot can start above every id this worker issued. Past either limit id generation fails, with or without the
+ * hybrid clock. Without it, a worker that took over a slot whose mark is ahead of its wall clock waits for the clock
+ * to pass the mark.
  */
 public class IdWorker {
 
@@ -30,60 +46,144 @@ public class IdWorker {
 
     private final static long sequenceMask = -1L ^ (-1L << sequenceBits);
 
-    private static long lastTimestamp = -1L;
+    private final static long sequenceExhaustedBackoffNanos = TimeUnit.MICROSECONDS.toNanos(50);
 
-    private long sequence = 0L;
+    /**
+     * Timestamp (relative to {@code twepoch}) and sequence of the last issued id, laid out as
+     * {@code timestamp << sequenceBits | sequence}.
+     */
+    private final AtomicLong lastIssued = new AtomicLong();
 
-    private final long workerId;
+    private volatile Lease lease;
 
-    private final long datacenterId;
+    private final boolean hybridClock;
 
 
     public IdWorker() {
-        this.datacenterId = getDatacenterId(maxDatacenterId);
-        this.workerId = getMaxWorkerId(datacenterId, maxWorkerId);
+        long datacenterId = getDatacenterId(maxDatacenterId);
+        long workerId = getMaxWorkerId(datacenterId, maxWorkerId);
+        this.lease = Lease.unlimited(nodeBits(workerId, datacenterId));
+        this.hybridClock = false;
     }
 
     public IdWorker(long workerId, long datacenterId) {
-        if (workerId > maxWorkerId || workerId < 0) {
-            throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", maxWorkerId));
+        this(workerId, datacenterId, false);
+    }
+
+    public IdWorker(long workerId, long datacenterId, boolean hybridClock) {
+        this.lease = Lease.unlimited(nodeBits(workerId, datacenterId));
+        this.hybridClock = hybridClock;
+    }
+
+    public long nextId() {
+        return reserve(1);
+    }
+
+    /**
+     * Reserves {@code count} ids at once, e.g. for bulk inserts. Ids reserved within the same millisecond
+     * are consecutive numbers, so a batch costs one compare-and-set per 4096 ids.
+     */
+    public long[] nextIds(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be at least 1");
         }
-        if (datacenterId > maxDatacenterId || datacenterId < 0) {
-            throw new IllegalArgumentException(String.format("datacenter Id can't be greater than %d or less than 0", maxDatacenterId));
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blockSize = (int) Math.min(count - filled, sequenceMask + 1);
+            long firstId = reserve(blockSize);
+            for (int i = 0; i < blockSize; i++) {
+                ids[filled++] = firstId + i;
+            }
         }
-        this.workerId = workerId;
-        this.datacenterId = datacenterId;
+        return ids;
     }
 
-    public synchronized long nextId() {
-        long timestamp = timeGen();
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", lastTimestamp - timestamp));
-        }
-        if (lastTimestamp == timestamp) {
-            sequence = (sequence + 1) & sequenceMask;
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
+    /**
+     * Claims {@code count} consecutive sequence numbers within one millisecond and returns the first id.
+     */
+    private long reserve(int count) {
+        while (true) {
+            // Read the lease and the state before the clock: any timestamp already published is then never ahead
+            // of ours unless the clock really moved backwards.
+            Lease lease = this.lease;
+            long last = this.lastIssued.get();
+            long lastTimestamp = last >>> sequenceBits;
+            long now = timeGen();
+            if (now >= lease.validUntil()) {
+                throw new IllegalStateException("Worker id lease lost or expired.  Refusing to generate ids until it is renewed");
+            }
+            long timestamp = now - twepoch;
+            long first;
+            if (timestamp > lastTimestamp) {
+                first = timestamp << sequenceBits;
+            } else if (timestamp < lastTimestamp && !this.hybridClock && lastTimestamp + twepoch <= lease.notBefore()) {
+                // The slot's previous holder issued ids up to here; wait for the wall clock to get past them.
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lastTimestamp - timestamp));
+                continue;
+            } else if (timestamp < lastTimestamp && !this.hybridClock) {
+                throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", lastTimestamp - timestamp));
+            } else if ((last & sequenceMask) + count <= sequenceMask) {
+                first = last + 1;
+            } else if (this.hybridClock) {
+                // Move on to the next logical millisecond without waiting for the wall clock to get there.
+                first = (lastTimestamp + 1) << sequenceBits;
+            } else {
+                // This millisecond's sequence is used up; back off instead of burning a core until the next one.
+                LockSupport.parkNanos(sequenceExhaustedBackoffNanos);
+                continue;
+            }
+            if ((first >>> sequenceBits) + twepoch > lease.highWater()) {
+                throw new IllegalStateException("Clock ran past the worker id lease's high-water mark.  Refusing to generate ids until it is renewed");
+            }
+            if (this.lastIssued.compareAndSet(last, first + count - 1)) {
+                return ((first >>> sequenceBits) << timestampLeftShift) | lease.nodeBits() | (first & sequenceMask);
             }
-        } else {
-            sequence = 0L;
         }
-        lastTimestamp = timestamp;
-        long nextId = ((timestamp - twepoch) << timestampLeftShift)
-                | (datacenterId << datacenterIdShift)
-                | (workerId << workerIdShift) | sequence;
-        return nextId;
     }
 
-    private long tilNextMillis(final long lastTimestamp) {
-        long timestamp = this.timeGen();
-        while (timestamp <= lastTimestamp) {
-            timestamp = this.timeGen();
+    /**
+     * Switches to a newly leased slot. Ids continue above {@code notBefore}, the high-water mark the slot's previous
+     * holder left, even when that is ahead of the wall clock. Times are epoch milliseconds.
+     */
+    void lease(long workerId, long datacenterId, long notBefore, long validUntil, long highWater) {
+        long nodeBits = nodeBits(workerId, datacenterId);
+        fence();
+        this.lastIssued.accumulateAndGet(((notBefore - twepoch) << sequenceBits) | sequenceMask, Math::max);
+        this.lease = new Lease(nodeBits, notBefore, validUntil, highWater);
+    }
+
+    void renewLease(long validUntil, long highWater) {
+        Lease current = this.lease;
+        this.lease = new Lease(current.nodeBits(), current.notBefore(), validUntil, highWater);
+    }
+
+    /**
+     * Refuses every id from now on, until the lease is renewed or another slot is leased.
+     */
+    void fence() {
+        Lease current = this.lease;
+        this.lease = new Lease(current.nodeBits(), current.notBefore(), Long.MIN_VALUE, Long.MIN_VALUE);
+    }
+
+    /**
+     * Timestamp of the last issued id in epoch milliseconds; with a hybrid clock it may be ahead of the wall clock.
+     */
+    long lastTimestamp() {
+        return (this.lastIssued.get() >>> sequenceBits) + twepoch;
+    }
+
+    private static long nodeBits(long workerId, long datacenterId) {
+        if (workerId > maxWorkerId || workerId < 0) {
+            throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", maxWorkerId));
+        }
+        if (datacenterId > maxDatacenterId || datacenterId < 0) {
+            throw new IllegalArgumentException(String.format("datacenter Id can't be greater than %d or less than 0", maxDatacenterId));
         }
-        return timestamp;
+        return (datacenterId << datacenterIdShift) | (workerId << workerIdShift);
     }
 
-    private long timeGen() {
+    protected long timeGen() {
         return System.currentTimeMillis();
     }
 
@@ -116,4 +216,15 @@ public class IdWorker {
         return id;
     }
 
-}
\ No newline at end of file
+    /**
+     * The slot ids are issued for, the high-water mark its previous holder left, the wall-clock time until which ids
+     * may be issued and the latest timestamp they may carry, in epoch milliseconds.
+     */
+    private record Lease(long nodeBits, long notBefore, long validUntil, long highWater) {
+
+        static Lease unlimited(long nodeBits) {
+            return new Lease(nodeBits, Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+}
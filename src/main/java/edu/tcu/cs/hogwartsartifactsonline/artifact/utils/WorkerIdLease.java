@@ -0,0 +1,71 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One of the 1024 datacenter/worker id combinations an {@link IdWorker} can use, and the node currently holding it.
+ * <p>
+ * {@code highWater} is the latest timestamp any holder may have put in an id of this slot. It outlives the lease,
+ * so that the next holder starts above it even when the previous one's hybrid clock ran ahead of wall time.
+ */
+@Entity
+public class WorkerIdLease implements Serializable {
+
+    public static final int SLOTS = 1024;
+
+    @Id
+    private Integer id;
+
+    private String holder;
+
+    private Instant expiresAt;
+
+    private Instant highWater;
+
+    public WorkerIdLease() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getHighWater() {
+        return highWater;
+    }
+
+    public void setHighWater(Instant highWater) {
+        this.highWater = highWater;
+    }
+
+    public static long workerIdOf(int slot) {
+        return slot & 0x1F;
+    }
+
+    public static long datacenterIdOf(int slot) {
+        return slot >> 5;
+    }
+}
@@ -0,0 +1,223 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Hands out datacenter/worker id combinations to application nodes through leases in the shared database,
+ * so that replicas never generate colliding ids. A node claims a free or expired slot on startup, renews it
+ * on every heartbeat and releases it on shutdown; a slot whose holder stops renewing is reclaimed once its
+ * lease has expired. The lease ttl should span several heartbeats and exceed the clock skew between nodes.
+ * <p>
+ * The {@link IdWorker} of a lease is fenced to it: it stops issuing ids once the lease has expired without a
+ * renewal, and never issues a timestamp past the lease's high-water mark, which each heartbeat moves ttl ahead of
+ * the later of the wall clock and the worker's own clock. A node that finds its slot taken over leases another one.
+ */
+@Component
+public class WorkerIdLeaseRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerIdLeaseRegistry.class);
+
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    private final WorkerIdLeaseRepository workerIdLeaseRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration ttl;
+
+    private final String holder;
+
+    private volatile Claim claim;
+
+    private volatile IdWorker idWorker;
+
+    public WorkerIdLeaseRegistry(WorkerIdLeaseRepository workerIdLeaseRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${id-worker.lease.ttl}") Duration ttl) {
+        this.workerIdLeaseRepository = workerIdLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.holder = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Leases a slot and returns an id worker fenced to it, which follows this node onto another slot if the lease
+     * is ever taken over.
+     */
+    public synchronized IdWorker newIdWorker(boolean hybridClock) {
+        int slot = acquire();
+        IdWorker newIdWorker = new IdWorker(WorkerIdLease.workerIdOf(slot), WorkerIdLease.datacenterIdOf(slot), hybridClock);
+        lease(newIdWorker, this.claim);
+        this.idWorker = newIdWorker;
+        return newIdWorker;
+    }
+
+    public synchronized int acquire() {
+        Claim current = this.claim;
+        if (current != null) {
+            return current.slot();
+        }
+        for (int attempt = 1; attempt <= MAX_CLAIM_ATTEMPTS; attempt++) {
+            try {
+                Claim claimed = this.transactionTemplate.execute(status -> tryClaim());
+                if (claimed == null) {
+                    throw new IllegalStateException("All " + WorkerIdLease.SLOTS + " worker ids are leased by other nodes");
+                }
+                if (this.idWorker != null) {
+                    lease(this.idWorker, claimed);
+                }
+                this.claim = claimed;
+                LOGGER.info("Leased worker id slot {} (datacenter {}, worker {}) as {}", claimed.slot(),
+                        WorkerIdLease.datacenterIdOf(claimed.slot()), WorkerIdLease.workerIdOf(claimed.slot()), this.holder);
+                return claimed.slot();
+            } catch (DataAccessException e) {
+                // Another node inserted the same slot first; look again.
+                LOGGER.debug("Worker id claim attempt {} lost a race", attempt, e);
+            }
+        }
+        throw new IllegalStateException("Could not lease a worker id after " + MAX_CLAIM_ATTEMPTS + " attempts");
+    }
+
+    private Claim tryClaim() {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(this.ttl);
+        for (Integer expiredId : this.workerIdLeaseRepository.findExpiredIds(now)) {
+            if (this.workerIdLeaseRepository.claim(expiredId, this.holder, expiresAt, now) == 1) {
+                Instant previousHighWater = this.workerIdLeaseRepository.findHighWater(expiredId);
+                Instant notBefore = previousHighWater != null ? previousHighWater : Instant.EPOCH;
+                Instant highWater = highWater(now, notBefore);
+                this.workerIdLeaseRepository.renew(expiredId, this.holder, expiresAt, highWater);
+                return new Claim(expiredId, notBefore, expiresAt, highWater);
+            }
+        }
+        Set<Integer> leasedIds = new HashSet<>(this.workerIdLeaseRepository.findAllIds());
+        for (int id = 0; id < WorkerIdLease.SLOTS; id++) {
+            if (!leasedIds.contains(id)) {
+                Instant highWater = highWater(now, Instant.EPOCH);
+                this.workerIdLeaseRepository.insert(id, this.holder, expiresAt, highWater);
+                return new Claim(id, Instant.EPOCH, expiresAt, highWater);
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(initialDelayString = "${id-worker.lease.heartbeat-interval}",
+            fixedDelayString = "${id-worker.lease.heartbeat-interval}")
+    public synchronized void heartbeat() {
+        Claim current = this.claim;
+        if (current == null) {
+            if (this.idWorker != null) {
+                leaseAnotherSlot();
+            }
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            Instant expiresAt = now.plus(this.ttl);
+            Instant next = highWater(now, Instant.EPOCH);
+            // Never lower a mark already recorded, even if the wall clock stepped back since.
+            Instant highWater = next.isAfter(current.highWater()) ? next : current.highWater();
+            Boolean renewed = this.transactionTemplate.execute(status ->
+                    this.workerIdLeaseRepository.renew(current.slot(), this.holder, expiresAt, highWater) == 1);
+            if (Boolean.TRUE.equals(renewed)) {
+                Claim renewedClaim = new Claim(current.slot(), current.notBefore(), expiresAt, highWater);
+                if (this.idWorker != null) {
+                    this.idWorker.renewLease(expiresAt.toEpochMilli(), highWater.toEpochMilli());
+                }
+                this.claim = renewedClaim;
+                return;
+            }
+        } catch (DataAccessException | TransactionException e) {
+            LOGGER.warn("Could not renew the lease on worker id slot {}; ids stop at {} unless it is renewed by then",
+                    current.slot(), current.expiresAt(), e);
+            return;
+        }
+        LOGGER.warn("Worker id slot {} was taken over by another node; leasing another one", current.slot());
+        if (this.idWorker != null) {
+            this.idWorker.fence();
+        }
+        this.claim = null;
+        if (this.idWorker != null) {
+            leaseAnotherSlot();
+        }
+    }
+
+    private void leaseAnotherSlot() {
+        try {
+            acquire();
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not lease another worker id slot; no ids are generated until a later heartbeat does", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        Claim current = this.claim;
+        if (current == null) {
+            return;
+        }
+        if (this.idWorker != null) {
+            this.idWorker.fence();
+        }
+        // The ids actually issued, rather than the ttl-ahead mark, so that the next holder need not wait for it.
+        Instant issuedUntil = issuedUntil(Instant.now(), current.notBefore());
+        try {
+            this.transactionTemplate.executeWithoutResult(status ->
+                    this.workerIdLeaseRepository.release(current.slot(), this.holder, Instant.EPOCH, issuedUntil));
+        } catch (DataAccessException | TransactionException e) {
+            // Also when the database has shut down before this node.
+            LOGGER.warn("Could not release worker id slot {}; it becomes free when its lease expires", current.slot(), e);
+        }
+    }
+
+    /**
+     * The ttl past {@link #issuedUntil}.
+     */
+    private Instant highWater(Instant now, Instant notBefore) {
+        return issuedUntil(now, notBefore).plus(this.ttl);
+    }
+
+    /**
+     * The latest of {@code now}, {@code notBefore} and the id worker's own clock. An id still being issued when the
+     * worker is fenced carries the wall clock of that moment or, with a hybrid clock, at most one tick more than the
+     * last one.
+     */
+    private Instant issuedUntil(Instant now, Instant notBefore) {
+        Instant from = now.isAfter(notBefore) ? now : notBefore;
+        IdWorker current = this.idWorker;
+        if (current != null) {
+            Instant lastTimestamp = Instant.ofEpochMilli(current.lastTimestamp() + 1);
+            if (lastTimestamp.isAfter(from)) {
+                from = lastTimestamp;
+            }
+        }
+        return from;
+    }
+
+    private static void lease(IdWorker idWorker, Claim claim) {
+        idWorker.lease(WorkerIdLease.workerIdOf(claim.slot()), WorkerIdLease.datacenterIdOf(claim.slot()),
+                claim.notBefore().toEpochMilli(), claim.expiresAt().toEpochMilli(), claim.highWater().toEpochMilli());
+    }
+
+    /**
+     * A leased slot, the high-water mark its previous holder left, and this node's lease on it.
+     */
+    private record Claim(int slot, Instant notBefore, Instant expiresAt, Instant highWater) {
+    }
+}
@@ -0,0 +1,39 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface WorkerIdLeaseRepository extends JpaRepository<WorkerIdLease, Integer> {
+
+    @Query("select l.id from WorkerIdLease l where l.expiresAt < :now order by l.expiresAt")
+    List<Integer> findExpiredIds(Instant now);
+
+    @Query("select l.id from WorkerIdLease l order by l.id")
+    List<Integer> findAllIds();
+
+    // A plain insert rather than save(): merging an assigned id could silently overwrite another node's lease.
+    @Modifying
+    @Query("insert into WorkerIdLease (id, holder, expiresAt, highWater) values (:id, :holder, :expiresAt, :highWater)")
+    int insert(Integer id, String holder, Instant expiresAt, Instant highWater);
+
+    @Query("select l.highWater from WorkerIdLease l where l.id = :id")
+    Instant findHighWater(Integer id);
+
+    @Modifying
+    @Query("update WorkerIdLease l set l.holder = :holder, l.expiresAt = :expiresAt where l.id = :id and (l.holder = :holder or l.expiresAt < :now)")
+    int claim(Integer id, String holder, Instant expiresAt, Instant now);
+
+    @Modifying
+    @Query("update WorkerIdLease l set l.expiresAt = :expiresAt, l.highWater = :highWater where l.id = :id and l.holder = :holder")
+    int release(Integer id, String holder, Instant expiresAt, Instant highWater);
+
+    @Modifying
+    @Query("update WorkerIdLease l set l.expiresAt = :expiresAt, l.highWater = :highWater where l.id = :id and l.holder = :holder")
+    int renew(Integer id, String holder, Instant expiresAt, Instant highWater);
+}
@@ -0,0 +1,263 @@
+package edu.tcu.cs.hogwartsartifactsonline.catalog;
+
+import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactChangedEvent;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactRepository;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardChangedEvent;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardRepository;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardToWizardDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Optional in-memory replica of the artifact and wizard tables, turned on by {@code catalog.replica.enabled}.
+ * <p>
+ * Readers take {@link #current()} and never lock. Writers are the change events: once the change commits, the rows
+ * it touched are read back and a new {@link CatalogSnapshot} is published in one volatile write, one change at a
+ * time. The replica applies a change before any cache built on it drops its entries, so a cache refilled right
+ * after never reads the old version.
+ * <p>
+ * Every {@code catalog.replica.consistency-check.interval} the replica is reloaded if a failed update dropped it,
+ * and, with {@code catalog.replica.consistency-check.enabled}, compared with the database and repaired.
+ */
+@Component
+public class CatalogReplica {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogReplica.class);
+
+    private final ArtifactRepository artifactRepository;
+
+    private final WizardRepository wizardRepository;
+
+    private final ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter;
+
+    private final WizardToWizardDtoConverter wizardToWizardDtoConverter;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final boolean consistencyCheck;
+
+    private final Object writeLock = new Object();
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogReplica(ArtifactRepository artifactRepository,
+                          WizardRepository wizardRepository,
+                          ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter,
+                          WizardToWizardDtoConverter wizardToWizardDtoConverter,
+                          ApplicationEventPublisher eventPublisher,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${catalog.replica.enabled}") boolean enabled,
+                          @Value("${catalog.replica.consistency-check.enabled}") boolean consistencyCheck) {
+        this.artifactRepository = artifactRepository;
+        this.wizardRepository = wizardRepository;
+        this.artifactToArtifactDtoConverter = artifactToArtifactDtoConverter;
+        this.wizardToWizardDtoConverter = wizardToWizardDtoConverter;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        // Changes are applied after the writer's transaction has completed, so they need one of their own.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.consistencyCheck = consistencyCheck;
+    }
+
+    /**
+     * Returns the latest snapshot, or null when the replica is disabled or not loaded, in which case reads go to the database.
+     */
+    public CatalogSnapshot current() {
+        return this.snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!this.enabled) {
+            return;
+        }
+        synchronized (this.writeLock) {
+            CatalogSnapshot previous = this.snapshot;
+            CatalogSnapshot loaded = this.transactionTemplate.execute(status -> loadAll(previous == null ? 1 : previous.version() + 1));
+            this.snapshot = loaded;
+            LOGGER.info("Loaded the catalog replica with {} artifacts and {} wizards", loaded.artifactMap().size(), loaded.wizardMap().size());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${catalog.replica.consistency-check.interval}",
+            fixedDelayString = "${catalog.replica.consistency-check.interval}")
+    public void check() {
+        if (!this.enabled) {
+            return;
+        }
+        try {
+            if (this.snapshot == null) {
+                load();
+            } else if (this.consistencyCheck) {
+                verify();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not check the catalog replica", e);
+        }
+    }
+
+    /**
+     * Compares the replica with the database, replaces it if they differ, and returns how many artifacts and
+     * wizards differed. Change events for those are published, so that the caches drop what they took from the replica.
+     */
+    public int verify() {
+        Set<Long> driftedArtifactIds;
+        Set<Integer> driftedWizardIds;
+        synchronized (this.writeLock) {
+            CatalogSnapshot current = this.snapshot;
+            if (current == null) {
+                return 0;
+            }
+            CatalogSnapshot expected = this.transactionTemplate.execute(status -> {
+                // A write that bypassed the events also bypassed the second-level cache.
+                this.entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                return loadAll(current.version() + 1);
+            });
+            driftedArtifactIds = differingKeys(current.artifactMap(), expected.artifactMap());
+            driftedWizardIds = differingKeys(current.wizardMap(), expected.wizardMap());
+            if (driftedArtifactIds.isEmpty() && driftedWizardIds.isEmpty()) {
+                return 0;
+            }
+            LOGGER.warn("Repairing catalog replica drift on artifacts {} and wizards {}", driftedArtifactIds, driftedWizardIds);
+            this.snapshot = expected;
+        }
+        if (!driftedArtifactIds.isEmpty()) {
+            this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(driftedArtifactIds));
+        }
+        if (!driftedWizardIds.isEmpty()) {
+            this.eventPublisher.publishEvent(new WizardChangedEvent(driftedWizardIds));
+        }
+        return driftedArtifactIds.size() + driftedWizardIds.size();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArtifactChanged(ArtifactChangedEvent event) {
+        apply(event.artifactIds(), event.ownerId(), List.of());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWizardChanged(WizardChangedEvent event) {
+        apply(List.of(), null, event.wizardIds());
+    }
+
+    private void apply(Collection<Long> artifactIds, Integer formerOwnerId, Collection<Integer> wizardIds) {
+        synchronized (this.writeLock) {
+            CatalogSnapshot current = this.snapshot;
+            if (current == null) {
+                // Not loaded yet, and the load will see this change, or dropped until the next check reloads it.
+                return;
+            }
+            try {
+                this.snapshot = this.transactionTemplate.execute(status -> next(current, artifactIds, formerOwnerId, wizardIds));
+            } catch (RuntimeException e) {
+                this.snapshot = null;
+                LOGGER.error("Could not update the catalog replica; reads go to the database until it is reloaded", e);
+            }
+        }
+    }
+
+    private CatalogSnapshot next(CatalogSnapshot current, Collection<Long> changedArtifactIds, Integer formerOwnerId,
+                                 Collection<Integer> changedWizardIds) {
+        Set<Long> artifactIds = new HashSet<>(changedArtifactIds);
+        if (formerOwnerId != null) {
+            artifactIds.addAll(current.artifactIdsOwnedBy(formerOwnerId));
+        }
+        List<Artifact> artifacts = this.artifactRepository.findAllById(artifactIds);
+
+        // Reload every wizard that gained or lost one of these artifacts, whose count the event may not name.
+        Set<Integer> wizardIds = new HashSet<>(changedWizardIds);
+        if (formerOwnerId != null) {
+            wizardIds.add(formerOwnerId);
+        }
+        for (Long artifactId : artifactIds) {
+            ArtifactDto previous = current.artifactMap().get(artifactId);
+            if (previous != null && previous.owner() != null) {
+                wizardIds.add(previous.owner().id());
+            }
+        }
+        for (Artifact artifact : artifacts) {
+            if (artifact.getOwner() != null) {
+                wizardIds.add(artifact.getOwner().getId());
+            }
+        }
+        List<Wizard> wizards = this.wizardRepository.findAllById(wizardIds);
+
+        NavigableMap<Long, ArtifactDto> artifactDtos = new TreeMap<>(current.artifactMap());
+        NavigableMap<Integer, WizardDto> wizardDtos = new TreeMap<>(current.wizardMap());
+        artifactIds.forEach(artifactDtos::remove);
+        wizardIds.forEach(wizardDtos::remove);
+        wizards.forEach(wizard -> wizardDtos.put(wizard.getId(), this.wizardToWizardDtoConverter.convert(wizard)));
+        artifacts.forEach(artifact -> artifactDtos.put(artifact.getId(), this.artifactToArtifactDtoConverter.convert(artifact)));
+        // The artifacts these wizards kept embed the old name or count.
+        for (Integer wizardId : wizardIds) {
+            WizardDto owner = wizardDtos.get(wizardId);
+            for (Long artifactId : current.artifactIdsOwnedBy(wizardId)) {
+                ArtifactDto artifactDto = artifactDtos.get(artifactId);
+                if (owner != null && !artifactIds.contains(artifactId) && artifactDto != null) {
+                    artifactDtos.put(artifactId, new ArtifactDto(artifactDto.id(), artifactDto.name(), artifactDto.description(),
+                            artifactDto.imageUrl(), owner, artifactDto.version()));
+                }
+            }
+        }
+        return new CatalogSnapshot(current.version() + 1, artifactDtos, wizardDtos);
+    }
+
+    private CatalogSnapshot loadAll(long version) {
+        NavigableMap<Long, ArtifactDto> artifactDtos = new TreeMap<>();
+        this.artifactRepository.findAllWithOwner()
+                .forEach(artifact -> artifactDtos.put(artifact.getId(), this.artifactToArtifactDtoConverter.convert(artifact)));
+        NavigableMap<Integer, WizardDto> wizardDtos = new TreeMap<>();
+        this.wizardRepository.findAll()
+                .forEach(wizard -> wizardDtos.put(wizard.getId(), this.wizardToWizardDtoConverter.convert(wizard)));
+        return new CatalogSnapshot(version, artifactDtos, wizardDtos);
+    }
+
+    private static <K, V> Set<K> differingKeys(Map<K, V> actual, Map<K, V> expected) {
+        Set<K> keys = new TreeSet<>(actual.keySet());
+        keys.addAll(expected.keySet());
+        keys.removeIf(key -> Objects.equals(actual.get(key), expected.get(key)));
+        return keys;
+    }
+}
@@ -0,0 +1,115 @@
+package edu.tcu.cs.hogwartsartifactsonline.catalog;
+
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * One immutable version of the artifact catalog: artifacts by id with their owners embedded, wizards by id, and
+ * an owner index holding each wizard's artifact ids in ascending order, under a {@code null} key for the
+ * unassigned ones. {@link CatalogReplica} never changes a published snapshot; every write builds the next one.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+
+    private final NavigableMap<Long, ArtifactDto> artifacts;
+
+    private final NavigableMap<Integer, WizardDto> wizards;
+
+    private final Map<Integer, List<Long>> artifactIdsByOwner;
+
+    CatalogSnapshot(long version, NavigableMap<Long, ArtifactDto> artifacts, NavigableMap<Integer, WizardDto> wizards) {
+        this.version = version;
+        this.artifacts = Collections.unmodifiableNavigableMap(artifacts);
+        this.wizards = Collections.unmodifiableNavigableMap(wizards);
+        Map<Integer, List<Long>> artifactIdsByOwner = new HashMap<>();
+        // Walking the artifacts in id order leaves every list sorted.
+        artifacts.forEach((artifactId, artifactDto) ->
+                artifactIdsByOwner.computeIfAbsent(artifactDto.owner() != null ? artifactDto.owner().id() : null, ownerId -> new ArrayList<>())
+                        .add(artifactId));
+        artifactIdsByOwner.replaceAll((ownerId, artifactIds) -> Collections.unmodifiableList(artifactIds));
+        this.artifactIdsByOwner = artifactIdsByOwner;
+    }
+
+    public long version() {
+        return this.version;
+    }
+
+    public ArtifactDto artifact(Long artifactId) {
+        ArtifactDto artifactDto = this.artifacts.get(artifactId);
+        if (artifactDto == null) {
+            throw new ObjectNotFoundException("artifact", artifactId);
+        }
+        return artifactDto;
+    }
+
+    public Collection<ArtifactDto> artifacts() {
+        return this.artifacts.values();
+    }
+
+    public WizardDto wizard(Integer wizardId) {
+        WizardDto wizardDto = this.wizards.get(wizardId);
+        if (wizardDto == null) {
+            throw new ObjectNotFoundException("wizard", wizardId);
+        }
+        return wizardDto;
+    }
+
+    /**
+     * Throws {@link ObjectNotFoundException} unless the snapshot holds the given wizard.
+     */
+    public void requireWizard(Integer wizardId) {
+        if (!this.wizards.containsKey(wizardId)) {
+            throw new ObjectNotFoundException("wizard", wizardId);
+        }
+    }
+
+    public Collection<WizardDto> wizards() {
+        return this.wizards.values();
+    }
+
+    /**
+     * Returns one page of the artifacts owned by the given wizard, or of the unassigned artifacts when
+     * {@code ownerId} is null, or null when the page is sorted by anything but the id, which the index cannot serve.
+     */
+    public Page<ArtifactDto> artifactsOwnedBy(Integer ownerId, Pageable pageable) {
+        Sort.Order idOrder = pageable.getSort().getOrderFor("id");
+        if (pageable.getSort().stream().count() > (idOrder == null ? 0 : 1)) {
+            return null;
+        }
+        List<Long> artifactIds = artifactIdsOwnedBy(ownerId);
+        boolean descending = idOrder != null && idOrder.isDescending();
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), artifactIds.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), artifactIds.size()) : artifactIds.size();
+        List<ArtifactDto> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(this.artifacts.get(artifactIds.get(descending ? artifactIds.size() - 1 - i : i)));
+        }
+        return pageable.isPaged() ? new PageImpl<>(content, pageable, artifactIds.size()) : new PageImpl<>(content);
+    }
+
+    NavigableMap<Long, ArtifactDto> artifactMap() {
+        return this.artifacts;
+    }
+
+    NavigableMap<Integer, WizardDto> wizardMap() {
+        return this.wizards;
+    }
+
+    List<Long> artifactIdsOwnedBy(Integer ownerId) {
+        return this.artifactIdsByOwner.getOrDefault(ownerId, List.of());
+    }
+}
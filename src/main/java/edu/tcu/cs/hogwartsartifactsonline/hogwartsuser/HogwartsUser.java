@@ -1,14 +1,22 @@
 package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotEmpty;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hogwarts-user")
+@Table(indexes = @Index(name = "idx_hogwarts_user_username", columnList = "username, id"))
 public class HogwartsUser implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -7,30 +7,50 @@ import org.springframework.util.StringUtils;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
+/**
+ * An immutable snapshot of a {@link HogwartsUser}, taken when it is loaded, so that one instance can be cached and
+ * shared by concurrent authentications.
+ */
 public class MyUserPrincipal implements UserDetails {
 
-    private HogwartsUser hogwartsUser;
+    private final Integer id;
+
+    private final String username;
+
+    private final String password;
+
+    private final boolean enabled;
+
+    private final String roles;
+
+    private final List<GrantedAuthority> authorities;
 
     public MyUserPrincipal(HogwartsUser hogwartsUser) {
-        this.hogwartsUser = hogwartsUser;
+        this.id = hogwartsUser.getId();
+        this.username = hogwartsUser.getUsername();
+        this.password = hogwartsUser.getPassword();
+        this.enabled = hogwartsUser.isEnabled();
+        this.roles = hogwartsUser.getRoles();
+        this.authorities = Arrays.stream(StringUtils.tokenizeToStringArray(this.roles, " "))
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Arrays.stream(StringUtils.tokenizeToStringArray(this.hogwartsUser.getRoles(), " "))
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .toList();
+        return this.authorities;
     }
 
     @Override
     public String getPassword() {
-        return this.hogwartsUser.getPassword();
+        return this.password;
     }
 
     @Override
     public String getUsername() {
-        return this.hogwartsUser.getUsername();
+        return this.username;
     }
 
     @Override
@@ -50,10 +70,19 @@ public class MyUserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return this.hogwartsUser.isEnabled();
+        return this.enabled;
     }
 
+    /**
+     * Returns a detached copy of the user as it was loaded.
+     */
     public HogwartsUser getHogwartsUser() {
+        HogwartsUser hogwartsUser = new HogwartsUser();
+        hogwartsUser.setId(this.id);
+        hogwartsUser.setUsername(this.username);
+        hogwartsUser.setPassword(this.password);
+        hogwartsUser.setEnabled(this.enabled);
+        hogwartsUser.setRoles(this.roles);
         return hogwartsUser;
     }
 }
@@ -0,0 +1,10 @@
+package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
+
+import java.util.Collection;
+
+/**
+ * Published by writes that change what a user authenticates with: the username, password, enabled flag or roles.
+ * A rename names both the old and the new username.
+ */
+public record UserChangedEvent(Collection<String> usernames) {
+}
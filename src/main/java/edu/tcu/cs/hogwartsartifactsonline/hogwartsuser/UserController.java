@@ -3,11 +3,17 @@ package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
 import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.converter.UserDtoToUserConverter;
 import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.converter.UsertoUserDtoConverter;
 import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserDto;
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserImportReport;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
 import edu.tcu.cs.hogwartsartifactsonline.system.Result;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,10 +27,14 @@ public class UserController {
 
     private final UsertoUserDtoConverter usertoUserDtoConverter;
 
-    public UserController(UserService userService, UserDtoToUserConverter userDtoToUserConverter, UsertoUserDtoConverter usertoUserDtoConverter) {
+    private final UserImportService userImportService;
+
+    public UserController(UserService userService, UserDtoToUserConverter userDtoToUserConverter, UsertoUserDtoConverter usertoUserDtoConverter,
+                          UserImportService userImportService) {
         this.userService = userService;
         this.userDtoToUserConverter = userDtoToUserConverter;
         this.usertoUserDtoConverter = usertoUserDtoConverter;
+        this.userImportService = userImportService;
     }
 
     @GetMapping
@@ -36,6 +46,13 @@ public class UserController {
         return new Result(true, StatusCode.SUCCESS, "Find All Success", hogwartsUsersDtos);
     }
 
+    @GetMapping("/page")
+    public Result findUserPage(@RequestParam(required = false) String cursor,
+                               @RequestParam(defaultValue = "20") int size) {
+        CursorPage<UserDto> userDtoPage = this.userService.findPage(cursor, size);
+        return new Result(true, StatusCode.SUCCESS, "Find Page Success", userDtoPage);
+    }
+
     @GetMapping("/{userId}")
     public Result findUserById(@PathVariable Integer userId) {
         HogwartsUser hogwartsUser = this.userService.findById(userId);
@@ -50,6 +67,23 @@ public class UserController {
         return new Result(true, StatusCode.SUCCESS, "Add Success", savedUserDto);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Result importUsers(InputStream body, HttpServletResponse response) throws IOException {
+        UserImportReport report = this.userImportService.importUsers(body);
+        if (report.truncated()) {
+            // The rows read before the malformed one are still imported; poll the import for how many.
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return new Result(false, StatusCode.INVALID_ARGUMENT, "Import stopped at malformed JSON, see data for details", report);
+        }
+        return new Result(true, StatusCode.SUCCESS, "Import Started", report);
+    }
+
+    @GetMapping("/import/{importId}")
+    public Result findUserImport(@PathVariable String importId) {
+        UserImportReport report = this.userImportService.findImport(importId);
+        return new Result(true, StatusCode.SUCCESS, "Find One Success", report);
+    }
+
     @PutMapping("/{userId}")
     public Result updateUser(@PathVariable Integer userId, @Valid @RequestBody UserDto userDto) {
         HogwartsUser hogwartsUser = this.userDtoToUserConverter.convert(userDto);
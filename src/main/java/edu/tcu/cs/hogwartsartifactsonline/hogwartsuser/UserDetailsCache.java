@@ -0,0 +1,45 @@
+package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-through cache of {@link MyUserPrincipal}s by username, sized and expired by {@code spring.cache.caffeine.spec},
+ * so that HTTP Basic authentication does not query the user table on every request. Entries are dropped once the
+ * transaction that changed the user commits. Unknown usernames are not cached.
+ */
+@Component
+public class UserDetailsCache {
+
+    public static final String CACHE_NAME = "users";
+
+    private final Cache<String, MyUserPrincipal> cache;
+
+    private final UserRepository userRepository;
+
+    @SuppressWarnings("unchecked")
+    public UserDetailsCache(CacheManager cacheManager, UserRepository userRepository) {
+        this.cache = (Cache<String, MyUserPrincipal>) cacheManager.getCache(CACHE_NAME).getNativeCache();
+        this.userRepository = userRepository;
+    }
+
+    public MyUserPrincipal get(String username) {
+        MyUserPrincipal principal = this.cache.get(username, key -> this.userRepository.findByUsername(key)
+                .map(MyUserPrincipal::new)
+                .orElse(null));
+        if (principal == null) {
+            throw new UsernameNotFoundException("username " + username + " not found");
+        }
+        return principal;
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        this.cache.invalidateAll(event.usernames());
+    }
+}
@@ -0,0 +1,285 @@
+package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserImportReport;
+import edu.tcu.cs.hogwartsartifactsonline.security.BoundedPasswordEncoder;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provisions users in bulk from a JSON array or from newline-delimited JSON.
+ * <p>
+ * The body is read and validated while the request waits; the rows that pass are then imported in the background
+ * and the caller polls {@link #findImport} for progress. Each chunk of {@code user.import.chunk-size} rows has its
+ * passwords hashed in parallel on the password hashing pool, outside any transaction, and is then inserted in a
+ * transaction of its own. Hibernate sends the inserts as JDBC batches ({@code hibernate.jdbc.batch_size}) and takes
+ * ids from the user sequence, which its pooled optimizer allocates 50 at a time. Imports run one after another;
+ * finished ones are kept for {@code user.import.retention}. Malformed JSON stops reading the body; the rows read
+ * before it are still imported and the report is marked truncated.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectReader userReader;
+
+    private final Validator validator;
+
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int chunkSize;
+
+    private final int batchSize;
+
+    private final Duration retention;
+
+    private final ExecutorService executor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public UserImportService(UserRepository userRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             BoundedPasswordEncoder passwordEncoder,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${user.import.chunk-size}") int chunkSize,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize,
+                             @Value("${user.import.retention}") Duration retention) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userReader = objectMapper.readerFor(HogwartsUser.class);
+        this.validator = validator;
+        this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-import-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    public UserImportReport importUsers(InputStream body) throws IOException {
+        pruneFinishedJobs();
+        List<Row> rows = new ArrayList<>();
+        Map<Long, Map<String, String>> rejectedRows = new LinkedHashMap<>();
+        Set<String> usernames = new HashSet<>();
+        long row = 0;
+        boolean truncated = false;
+
+        // A MappingIterator reads both a root-level array and a whitespace-separated sequence of objects.
+        try (MappingIterator<HogwartsUser> users = this.userReader.readValues(body)) {
+            while (true) {
+                HogwartsUser hogwartsUser;
+                // Counted before reading, so that malformed JSON is reported at the row it was found in.
+                row++;
+                try {
+                    if (!users.hasNextValue()) {
+                        row--;
+                        break;
+                    }
+                    hogwartsUser = users.nextValue();
+                } catch (JsonMappingException e) {
+                    if (e.getCause() instanceof JsonParseException malformed) {
+                        // Binding wraps malformed text inside the row; there is no end of the row to skip to.
+                        rejectedRows.put(row, Map.of("row", "Malformed JSON, import stopped: " + malformed.getOriginalMessage()));
+                        truncated = true;
+                        break;
+                    }
+                    // The iterator skips to the end of the offending value, so the next row can still be read.
+                    rejectedRows.put(row, Map.of("row", e.getOriginalMessage()));
+                    continue;
+                } catch (JsonParseException e) {
+                    rejectedRows.put(row, Map.of("row", "Malformed JSON, import stopped: " + e.getOriginalMessage()));
+                    truncated = true;
+                    break;
+                }
+
+                Map<String, String> violations = validate(hogwartsUser);
+                if (violations.isEmpty() && !usernames.add(hogwartsUser.getUsername())) {
+                    violations = Map.of("username", "username appears more than once in the import");
+                }
+                if (!violations.isEmpty()) {
+                    rejectedRows.put(row, violations);
+                    continue;
+                }
+                // Ids in the upload are ignored, as they are for a single POST.
+                hogwartsUser.setId(null);
+                rows.add(new Row(row, hogwartsUser));
+            }
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), truncated, row);
+        rejectedRows.forEach(job::reject);
+        this.jobs.put(job.id, job);
+        this.executor.execute(() -> run(job, rows));
+        return job.report();
+    }
+
+    public UserImportReport findImport(String importId) {
+        ImportJob job = this.jobs.get(importId);
+        if (job == null) {
+            throw new ObjectNotFoundException("user import", importId);
+        }
+        return job.report();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private void run(ImportJob job, List<Row> rows) {
+        for (int from = 0; from < rows.size() && !Thread.currentThread().isInterrupted(); from += this.chunkSize) {
+            importChunk(job, rows.subList(from, Math.min(from + this.chunkSize, rows.size())));
+        }
+        job.finish();
+        UserImportReport report = job.report();
+        LOGGER.info("User import {} finished: {} imported, {} rejected", report.id(), report.imported(), report.rejected());
+    }
+
+    private void importChunk(ImportJob job, List<Row> chunk) {
+        List<Row> accepted = chunk;
+        try {
+            Set<String> taken = new HashSet<>(this.userRepository.findUsernamesIn(chunk.stream().map(row -> row.hogwartsUser().getUsername()).toList()));
+            if (!taken.isEmpty()) {
+                accepted = new ArrayList<>(chunk.size());
+                for (Row row : chunk) {
+                    if (taken.contains(row.hogwartsUser().getUsername())) {
+                        job.reject(row.row(), Map.of("username", "username is already taken"));
+                    } else {
+                        accepted.add(row);
+                    }
+                }
+            }
+            List<String> encodedPasswords = this.passwordEncoder.encodeAll(accepted.stream().map(row -> row.hogwartsUser().getPassword()).toList());
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).hogwartsUser().setPassword(encodedPasswords.get(i));
+            }
+            persist(accepted);
+            job.imported(accepted.size());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not import a chunk of {} users in user import {}", accepted.size(), job.id, e);
+            accepted.forEach(row -> job.reject(row.row(), Map.of("row", "Could not be saved: " + e.getMessage())));
+        }
+    }
+
+    private void persist(List<Row> rows) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows.size(); i++) {
+                this.entityManager.persist(rows.get(i).hogwartsUser());
+                if ((i + 1) % this.batchSize == 0) {
+                    this.entityManager.flush();
+                    this.entityManager.clear();
+                }
+            }
+            this.entityManager.flush();
+            this.entityManager.clear();
+            this.eventPublisher.publishEvent(new UserChangedEvent(rows.stream().map(row -> row.hogwartsUser().getUsername()).toList()));
+        });
+    }
+
+    private Map<String, String> validate(HogwartsUser hogwartsUser) {
+        Set<ConstraintViolation<HogwartsUser>> violations = this.validator.validate(hogwartsUser);
+        Map<String, String> errors = new HashMap<>(violations.size());
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors;
+    }
+
+    private void pruneFinishedJobs() {
+        Instant cutoff = Instant.now().minus(this.retention);
+        this.jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private record Row(long row, HogwartsUser hogwartsUser) {
+    }
+
+    private static final class ImportJob {
+
+        private final String id;
+
+        private final boolean truncated;
+
+        private final long total;
+
+        private long imported;
+
+        private long rejected;
+
+        private final List<UserImportReport.RowError> errors = new ArrayList<>();
+
+        private volatile Instant finishedAt;
+
+        ImportJob(String id, boolean truncated, long total) {
+            this.id = id;
+            this.truncated = truncated;
+            this.total = total;
+        }
+
+        synchronized void reject(long row, Map<String, String> rowErrors) {
+            this.rejected++;
+            if (this.errors.size() < UserImportReport.MAX_REPORTED_ERRORS) {
+                this.errors.add(new UserImportReport.RowError(row, rowErrors));
+            }
+        }
+
+        synchronized void imported(int count) {
+            this.imported += count;
+        }
+
+        synchronized void finish() {
+            this.finishedAt = Instant.now();
+        }
+
+        synchronized UserImportReport report() {
+            List<UserImportReport.RowError> sortedErrors = new ArrayList<>(this.errors);
+            sortedErrors.sort(Comparator.comparingLong(UserImportReport.RowError::row));
+            return new UserImportReport(this.id, this.finishedAt == null ? UserImportReport.Status.RUNNING : UserImportReport.Status.COMPLETED,
+                    this.truncated, this.total, this.imported + this.rejected, this.imported, this.rejected, sortedErrors);
+        }
+    }
+}
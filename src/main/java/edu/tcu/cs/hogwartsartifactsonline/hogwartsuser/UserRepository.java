@@ -1,10 +1,37 @@
 package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
 
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<HogwartsUser,Integer> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<HogwartsUser> findByUsername(String username);
+
+    @Query("select u.username from HogwartsUser u where u.username in :usernames")
+    List<String> findUsernamesIn(Collection<String> usernames);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<HogwartsUser> findAll();
+
+    // Selects only the DTO columns, so password hashes never leave the database for a listing.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserDto(u.id, u.username, u.enabled, u.roles) from HogwartsUser u " +
+            "order by u.username, u.id")
+    List<UserDto> findDtosOrderByUsername(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserDto(u.id, u.username, u.enabled, u.roles) from HogwartsUser u " +
+            "where u.username >= :username and (u.username > :username or u.id > :id) order by u.username, u.id")
+    List<UserDto> findDtosOrderByUsernameAfter(String username, Integer id, Pageable pageable);
 }
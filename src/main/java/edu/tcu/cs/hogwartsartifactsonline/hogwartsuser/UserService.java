@@ -1,32 +1,80 @@
 package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
 
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserDto;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorCodec;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.InvalidCursorException;
 import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final int MAX_PAGE_SIZE = 100;
 
     private final UserRepository userRepository;
 
     private PasswordEncoder passwordEncoder;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final UserDetailsCache userDetailsCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserDetailsCache userDetailsCache,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<HogwartsUser> findAll() {
         return this.userRepository.findAll();
     }
 
+    /**
+     * Returns one page of users ordered by username and then id.
+     */
+    public CursorPage<UserDto> findPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page follows without a count query.
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<UserDto> users;
+        if (cursor == null || cursor.isEmpty()) {
+            users = this.userRepository.findDtosOrderByUsername(limit);
+        } else {
+            String[] key = CursorCodec.decode(cursor, 2);
+            users = this.userRepository.findDtosOrderByUsernameAfter(key[0], decodeId(cursor, key[1]), limit);
+        }
+        if (users.size() <= pageSize) {
+            return new CursorPage<>(users, null);
+        }
+        List<UserDto> page = users.subList(0, pageSize);
+        UserDto last = page.get(pageSize - 1);
+        return new CursorPage<>(page, CursorCodec.encode(last.username(), last.id().toString()));
+    }
+
+    private static int decodeId(String cursor, String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
     public HogwartsUser findById(Integer hogwartsUserId) {
         return this.userRepository.findById(hogwartsUserId)
                 .orElseThrow(() -> new ObjectNotFoundException("user", hogwartsUserId));
@@ -34,28 +82,46 @@ public class UserService implements UserDetailsService {
 
     public HogwartsUser save(HogwartsUser newHogwartsUser) {
         newHogwartsUser.setPassword(this.passwordEncoder.encode(newHogwartsUser.getPassword()));
-        return this.userRepository.save(newHogwartsUser);
+        HogwartsUser savedUser = this.userRepository.save(newHogwartsUser);
+        // Saving over an existing user replaces its password.
+        this.eventPublisher.publishEvent(new UserChangedEvent(List.of(savedUser.getUsername())));
+        return savedUser;
     }
 
     public HogwartsUser update(Integer hogwartsUserId, HogwartsUser update) {
         HogwartsUser oldUser = this.userRepository.findById(hogwartsUserId)
                 .orElseThrow(() -> new ObjectNotFoundException("user", hogwartsUserId));
+        Set<String> usernames = new LinkedHashSet<>(List.of(oldUser.getUsername(), update.getUsername()));
         oldUser.setUsername(update.getUsername());
         oldUser.setEnabled(update.isEnabled());
         oldUser.setRoles(update.getRoles());
-        return this.userRepository.save(oldUser);
+        HogwartsUser updatedUser = this.userRepository.save(oldUser);
+        this.eventPublisher.publishEvent(new UserChangedEvent(usernames));
+        return updatedUser;
     }
 
     public void delete(Integer hogwartsUserId) {
-        this.userRepository.findById(hogwartsUserId)
+        HogwartsUser hogwartsUser = this.userRepository.findById(hogwartsUserId)
                 .orElseThrow(() -> new ObjectNotFoundException("user", hogwartsUserId));
         this.userRepository.deleteById(hogwartsUserId);
+        this.eventPublisher.publishEvent(new UserChangedEvent(List.of(hogwartsUser.getUsername())));
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return this.userRepository.findByUsername(username)
-                .map(hogwartsUser -> new MyUserPrincipal(hogwartsUser))
-                .orElseThrow(() -> new UsernameNotFoundException("username " + username +" not found"));
+        return this.userDetailsCache.get(username);
+    }
+
+    /**
+     * Stores a password the login just verified, rehashed at the current cost.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        HogwartsUser hogwartsUser = this.userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("username " + user.getUsername() + " not found"));
+        hogwartsUser.setPassword(newPassword);
+        HogwartsUser savedUser = this.userRepository.save(hogwartsUser);
+        this.eventPublisher.publishEvent(new UserChangedEvent(List.of(savedUser.getUsername())));
+        return new MyUserPrincipal(savedUser);
     }
 }
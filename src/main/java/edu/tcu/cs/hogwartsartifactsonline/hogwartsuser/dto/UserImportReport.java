@@ -0,0 +1,29 @@
+package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress of a bulk user import. Rows are numbered from 1 in the order they appear in the request body; a row is
+ * processed once it has been imported or rejected, and {@code errors} lists at most {@link #MAX_REPORTED_ERRORS}
+ * of the rejected rows. {@code truncated} is true when malformed JSON stopped the reading of the body, in which case
+ * the rows after it were never read and are not part of {@code total}.
+ */
+public record UserImportReport(String id,
+                               Status status,
+                               boolean truncated,
+                               long total,
+                               long processed,
+                               long imported,
+                               long rejected,
+                               List<RowError> errors) {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    public enum Status {
+        RUNNING, COMPLETED
+    }
+
+    public record RowError(long row, Map<String, String> errors) {
+    }
+}
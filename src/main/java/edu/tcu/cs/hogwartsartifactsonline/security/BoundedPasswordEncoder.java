@@ -0,0 +1,223 @@
+package edu.tcu.cs.hogwartsartifactsonline.security;
+
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt on a small pool of its own, so that a burst of logins or user creations cannot occupy every request
+ * thread. At most {@code security.password-hashing.threads} hashes run at once and
+ * {@code security.password-hashing.queue-capacity} wait; beyond that the request is turned away with a 429.
+ * <p>
+ * With {@code security.password-hashing.autotune}, the cost is raised at startup to the highest one that hashes
+ * within {@code target-latency} on this machine, up to {@code max-cost}; it never goes below the configured
+ * {@code cost}. A stored hash of a lower cost is reported by {@link #upgradeEncoding}, so the next successful login
+ * rehashes it.
+ * <p>
+ * Hashing latency is published as the {@code password.hashing} timer, with percentile histograms, and the pool as
+ * the {@code executor.*} meters named {@code password-hashing}.
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    // Cheap enough to measure at every startup, expensive enough to measure reliably.
+    private static final int PROBE_COST = 8;
+
+    private static final long BULK_RETRY_DELAY_MILLIS = 10;
+
+    private final PasswordEncoder delegate;
+
+    private final int cost;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    private final ExecutorService executor;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    @Autowired
+    public BoundedPasswordEncoder(MeterRegistry meterRegistry,
+                                  @Value("${security.password-hashing.threads}") int threads,
+                                  @Value("${security.password-hashing.queue-capacity}") int queueCapacity,
+                                  @Value("${security.password-hashing.autotune}") boolean autotune,
+                                  @Value("${security.password-hashing.cost}") int cost,
+                                  @Value("${security.password-hashing.target-latency}") Duration targetLatency,
+                                  @Value("${security.password-hashing.max-cost}") int maxCost) {
+        this(meterRegistry, threads, queueCapacity, autotune ? tuneCost(targetLatency, cost, Math.max(cost, maxCost)) : cost);
+        LOGGER.info("Hashing passwords with BCrypt cost {}", this.cost);
+    }
+
+    private BoundedPasswordEncoder(MeterRegistry meterRegistry, int threads, int queueCapacity, int cost) {
+        this(new BCryptPasswordEncoder(cost), cost, meterRegistry, threads, queueCapacity);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int cost, MeterRegistry meterRegistry, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        this.cost = cost;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        this.threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, this.threadPoolExecutor, "password-hashing");
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    public int cost() {
+        return this.cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> this.encodeTimer.recordCallable(() -> this.delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> this.matchesTimer.recordCallable(() -> this.delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Hashes many passwords in parallel on the hashing pool, in order. At most one of them per hashing thread is in
+     * the pool at a time, so the queue keeps room for logins, which wait behind a handful of bulk hashes rather
+     * than all of them. Waits for room instead of failing when logins have filled the queue.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        Semaphore permits = new Semaphore(this.threadPoolExecutor.getMaximumPoolSize());
+        List<Future<String>> hashes = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                permits.acquire();
+                hashes.add(submitWhenQueued(() -> {
+                    try {
+                        return this.encodeTimer.recordCallable(() -> this.delegate.encode(rawPassword));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<String> encodedPasswords = new ArrayList<>(hashes.size());
+            for (Future<String> hash : hashes) {
+                encodedPasswords.add(hash.get());
+            }
+            return encodedPasswords;
+        } catch (InterruptedException e) {
+            hashes.forEach(hash -> hash.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            hashes.forEach(hash -> hash.cancel(false));
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Returns true only for a BCrypt hash of a lower cost. A higher one is left alone, so that nodes tuned to
+     * different costs never downgrade a hash or rewrite it back and forth.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < this.cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.threadPoolExecutor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        try {
+            return this.executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("password hashing");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private <T> Future<T> submitWhenQueued(Callable<T> task) throws InterruptedException {
+        while (true) {
+            try {
+                return this.executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (this.threadPoolExecutor.isShutdown()) {
+                    throw e;
+                }
+                Thread.sleep(BULK_RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    /**
+     * Every step of the cost doubles the work, so one measurement at a low cost is enough to find the highest cost
+     * within the target.
+     */
+    static int tuneCost(Duration targetLatency, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_COST);
+        long elapsed = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("autotune");
+            elapsed = Math.min(elapsed, System.nanoTime() - start);
+        }
+        int cost = PROBE_COST;
+        while (cost < maxCost && elapsed * 2 <= targetLatency.toNanos()) {
+            elapsed *= 2;
+            cost++;
+        }
+        return Math.max(minCost, cost);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hashing")
+                .description("Time spent hashing or verifying a password, excluding the wait for a hashing thread")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
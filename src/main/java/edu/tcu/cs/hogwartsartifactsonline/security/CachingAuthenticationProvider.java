@@ -0,0 +1,139 @@
+package edu.tcu.cs.hogwartsartifactsonline.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Authenticates username and password like {@link DaoAuthenticationProvider}, and remembers each successful
+ * verification for {@code security.credential-cache.expire-after-write}, so that a client sending HTTP Basic
+ * credentials on every request pays for BCrypt once rather than on every call.
+ * <p>
+ * Entries are keyed by an HMAC of the username and password under a key generated at startup and never stored,
+ * so the cache holds neither the password nor a hash that could be attacked offline. A user's entries are dropped
+ * once a change to that user commits.
+ */
+@Component
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final DaoAuthenticationProvider delegate;
+
+    private final Cache<String, UserDetails> verified;
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> mac;
+
+    // Moved by every user change, so a verification that overlapped one is not cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingAuthenticationProvider(UserDetailsService userDetailsService,
+                                         UserDetailsPasswordService userDetailsPasswordService,
+                                         PasswordEncoder passwordEncoder,
+                                         @Value("${security.credential-cache.max-size}") long maxSize,
+                                         @Value("${security.credential-cache.expire-after-write}") Duration expireAfterWrite) {
+        this.delegate = new DaoAuthenticationProvider();
+        this.delegate.setPasswordEncoder(passwordEncoder);
+        this.delegate.setUserDetailsService(userDetailsService);
+        // Rehashes the password on a successful login when the encoder asks for it.
+        this.delegate.setUserDetailsPasswordService(userDetailsPasswordService);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (credentials == null) {
+            return this.delegate.authenticate(authentication);
+        }
+        String cacheKey = cacheKey(username, credentials.toString());
+        UserDetails principal = this.verified.getIfPresent(cacheKey);
+        if (principal != null) {
+            return authenticated(principal, authentication);
+        }
+        long generation = this.generation.get();
+        Authentication result = this.delegate.authenticate(authentication);
+        if (result.getPrincipal() instanceof UserDetails userDetails) {
+            this.verified.put(cacheKey, userDetails);
+            if (this.generation.get() != generation) {
+                this.verified.invalidate(cacheKey);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return this.delegate.supports(authentication);
+    }
+
+    // Runs after UserDetailsCache, so a verification right after this one cannot load the old user again.
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        this.generation.incrementAndGet();
+        this.verified.asMap().values().removeIf(userDetails -> event.usernames().contains(userDetails.getUsername()));
+    }
+
+    long size() {
+        this.verified.cleanUp();
+        return this.verified.estimatedSize();
+    }
+
+    private String cacheKey(String username, String password) {
+        Mac mac = this.mac.get();
+        // The separator cannot appear in a username, so ("ab", "c") and ("a", "bc") never share a key.
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return HexFormat.of().formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(this.key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Authentication authenticated(UserDetails principal, Authentication authentication) {
+        UsernamePasswordAuthenticationToken result =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+        result.setDetails(authentication.getDetails());
+        return result;
+    }
+}
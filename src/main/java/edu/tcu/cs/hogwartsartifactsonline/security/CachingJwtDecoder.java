@@ -0,0 +1,135 @@
+package edu.tcu.cs.hogwartsartifactsonline.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Decodes bearer tokens like its delegate, and remembers each token that passed until it expires, so that a client
+ * sending the same token on every request pays for the RSA signature check and the claim parsing once. The
+ * authentication converted from a remembered token is kept with it, and every request gets a copy of its own.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the token and bounded by {@code security.jwt-cache.max-size}. A token
+ * without an expiry, or one that is already past it, is never remembered. Rejected tokens are not remembered either,
+ * so every one of them still reaches the delegate.
+ */
+public class CachingJwtDecoder implements JwtDecoder, Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final JwtDecoder delegate;
+
+    private final Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter;
+
+    private final Cache<String, Entry> decoded;
+
+    public CachingJwtDecoder(JwtDecoder delegate, Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter,
+                             boolean enabled, long maxSize) {
+        this.delegate = delegate;
+        this.authenticationConverter = authenticationConverter;
+        this.decoded = enabled
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfter(new UntilTokenExpiry()).build()
+                : null;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (this.decoded == null) {
+            return this.delegate.decode(token);
+        }
+        String cacheKey = digest(token);
+        Entry entry = this.decoded.getIfPresent(cacheKey);
+        if (entry != null && entry.jwt().getTokenValue().equals(token)) {
+            return entry.jwt();
+        }
+        Jwt jwt = this.delegate.decode(token);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(Instant.now())) {
+            this.decoded.put(cacheKey, new Entry(jwt));
+        }
+        return jwt;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Entry entry = this.decoded != null ? this.decoded.getIfPresent(digest(jwt.getTokenValue())) : null;
+        if (entry == null || entry.jwt() != jwt) {
+            return this.authenticationConverter.convert(jwt);
+        }
+        JwtAuthenticationToken authentication = entry.authentication;
+        if (authentication == null) {
+            AbstractAuthenticationToken converted = this.authenticationConverter.convert(jwt);
+            if (!(converted instanceof JwtAuthenticationToken jwtAuthenticationToken)) {
+                return converted;
+            }
+            authentication = jwtAuthenticationToken;
+            entry.authentication = authentication;
+        }
+        // The caller sets the request details on the token, so it cannot be shared between requests.
+        return new JwtAuthenticationToken(jwt, authentication.getAuthorities(), authentication.getName());
+    }
+
+    long size() {
+        this.decoded.cleanUp();
+        return this.decoded.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Jwt jwt;
+
+        private volatile JwtAuthenticationToken authentication;
+
+        Entry(Jwt jwt) {
+            this.jwt = jwt;
+        }
+
+        Jwt jwt() {
+            return this.jwt;
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Entry> {
+
+        // Past this, the remaining time no longer fits in a long of nanoseconds.
+        private static final Duration LONGEST = Duration.ofDays(100 * 365);
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), entry.jwt().getExpiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return remaining.compareTo(LONGEST) < 0 ? remaining.toNanos() : LONGEST.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package edu.tcu.cs.hogwartsartifactsonline.system;
+
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.InvalidCursorException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Encodes the seek key of the last row of a page into an opaque, URL-safe cursor and back.
+ */
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String... keyParts) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(keyParts.length);
+            for (String keyPart : keyParts) {
+                out.writeUTF(keyPart);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            int length = in.readUnsignedByte();
+            if (length != expectedParts) {
+                throw new InvalidCursorException(cursor);
+            }
+            String[] keyParts = new String[length];
+            for (int i = 0; i < length; i++) {
+                keyParts[i] = in.readUTF();
+            }
+            if (in.available() > 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            return keyParts;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
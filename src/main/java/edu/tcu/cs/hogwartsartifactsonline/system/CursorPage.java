@@ -0,0 +1,18 @@
+package edu.tcu.cs.hogwartsartifactsonline.system;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. {@code next} is an opaque cursor for the following page,
+ * or {@code null} when this is the last page.
+ */
+public record CursorPage<T>(List<T> content, String next) {
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = this.content.stream()
+                .<R>map(mapper)
+                .toList();
+        return new CursorPage<>(mapped, this.next);
+    }
+}
@@ -28,38 +28,38 @@ public class DBDataInitializer implements CommandLineRunner {
     public void run(String... args) throws Exception {
 
         Artifact artifact1 = new Artifact();
-        artifact1.setId("11");
+        artifact1.setId(11L);
         artifact1.setName("Wand");
         artifact1.setDescription("Wand desc");
         artifact1.setImageUrl("ImageUrl1");
 
         Artifact artifact2 = new Artifact();
-        artifact2.setId("22");
+        artifact2.setId(22L);
         artifact2.setName("Cloak");
         artifact2.setDescription("Cloak desc");
         artifact2.setImageUrl("ImageUrl2");
 
         Artifact artifact3 = new Artifact();
-        artifact3.setId("33");
+        artifact3.setId(33L);
         artifact3.setName("Map");
         artifact3.setDescription("Map desc");
         artifact3.setImageUrl("ImageUrl3");
 
         Artifact artifact4 = new Artifact();
-        artifact4.setId("44");
+        artifact4.setId(44L);
         artifact4.setName("Jacket");
         artifact4.setDescription("Jacket desc");
         artifact4.setImageUrl("ImageUrl4");
 
         Artifact artifact5 = new Artifact();
-        artifact5.setId("55");
+        artifact5.setId(55L);
         artifact5.setName("Glass");
         artifact5.setDescription("Glass desc");
         artifact5.setImageUrl("ImageUrl5");
 
 
         Artifact artifact6 = new Artifact();
-        artifact6.setId("66");
+        artifact6.setId(66L);
         artifact6.setName("Scar");
         artifact6.setDescription("Scar desc");
         artifact6.setImageUrl("ImageUrl6");
@@ -0,0 +1,71 @@
+package edu.tcu.cs.hogwartsartifactsonline.system;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns entity versions into strong ETags, and If-Match headers back into the version they require.
+ * <p>
+ * An artifact's tag also carries its owner's version, since the owner is part of its representation; If-Match
+ * only compares the artifact's own version, so renaming the owner does not reject a write to the artifact.
+ */
+public final class EntityTagCodec {
+
+    // Versions start at 0, so a header that names none of ours never matches.
+    public static final int UNMATCHED_VERSION = -1;
+
+    private static final Pattern ENTITY_TAG = Pattern.compile("\"(\\d+)(?:-\\d+)?\"");
+
+    private EntityTagCodec() {
+    }
+
+    public static String encode(int version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String encode(int version, Integer ownerVersion) {
+        return ownerVersion == null ? encode(version) : "\"" + version + "-" + ownerVersion + "\"";
+    }
+
+    /**
+     * Returns a tag for a collection that changes whenever an item is added, removed or changes version.
+     */
+    public static <T> String encodeAll(Collection<T> items, Function<T, ?> id, ToIntFunction<T> version) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (T item : items) {
+            digest.update((id.apply(item) + ":" + version.applyAsInt(item) + ",").getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Returns the version an If-Match header requires, null when there is no header or it is {@code *}, and
+     * {@link #UNMATCHED_VERSION} for weak tags, lists and tags this codec did not issue.
+     */
+    public static Integer decodeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher matcher = ENTITY_TAG.matcher(ifMatch.trim());
+        if (!matcher.matches()) {
+            return UNMATCHED_VERSION;
+        }
+        try {
+            return Integer.valueOf(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return UNMATCHED_VERSION;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package edu.tcu.cs.hogwartsartifactsonline.system;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hands Hibernate's second-level cache a JCache manager of its own. The regions are configured under
+ * {@code caffeine.jcache} in application.conf.
+ * <p>
+ * Hibernate closes the manager together with the session factory. A manager looked up by the provider's default
+ * URI would be shared by every application context in the JVM, e.g. across test contexts or devtools restarts,
+ * and closing one context would close the regions of the others.
+ */
+@Configuration
+public class HibernateCacheConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer() {
+        return hibernateProperties -> {
+            if (Boolean.parseBoolean(String.valueOf(hibernateProperties.get("hibernate.cache.use_second_level_cache")))) {
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, newCacheManager());
+            }
+        };
+    }
+
+    private static CacheManager newCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:hibernate-second-level-cache:" + UUID.randomUUID()),
+                        HibernateCacheConfiguration.class.getClassLoader());
+    }
+}
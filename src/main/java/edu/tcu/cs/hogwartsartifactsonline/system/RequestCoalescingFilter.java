@@ -0,0 +1,130 @@
+package edu.tcu.cs.hogwartsartifactsonline.system;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses concurrent identical GETs on the artifact and wizard endpoints: the first request runs the handler,
+ * and requests for the same URI, query and {@code If-None-Match} that arrive while it is in flight are answered
+ * with its status, headers and serialized body.
+ * <p>
+ * Runs after the security filter chain, so every request is still authenticated and authorized on its own. A
+ * request that waits longer than {@code request-coalescing.max-wait}, or whose leader failed, runs the handler
+ * itself.
+ */
+@Component
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    private final ConcurrentMap<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final String baseUrl;
+
+    private final Duration maxWait;
+
+    public RequestCoalescingFilter(@Value("${api.endpoint.base-url}") String baseUrl,
+                                   @Value("${request-coalescing.max-wait}") Duration maxWait) {
+        this.baseUrl = baseUrl;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals(this.baseUrl + "/artifacts") && request.getParameter("ownerId") == null) {
+            // The catalog, whatever else the query holds, is sent from a file snapshot, possibly by sendfile and
+            // gzipped per client; buffering it here would defeat the one and mix up the other.
+            return true;
+        }
+        return !path.startsWith(this.baseUrl + "/artifacts") && !path.startsWith(this.baseUrl + "/wizards");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getQueryString() == null ? request.getRequestURI() : request.getRequestURI() + "?" + request.getQueryString();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // A 304 for one client is no answer for another that holds a different tag.
+            key = key + "#" + ifNoneMatch;
+        }
+        CompletableFuture<SharedResponse> leader = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> existing = this.inFlight.putIfAbsent(key, leader);
+        if (existing == null) {
+            lead(key, leader, request, response, filterChain);
+            return;
+        }
+        SharedResponse sharedResponse = await(existing);
+        if (sharedResponse == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(sharedResponse.status());
+        response.setContentType(sharedResponse.contentType());
+        sharedResponse.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentLength(sharedResponse.body().length);
+        response.getOutputStream().write(sharedResponse.body());
+    }
+
+    private void lead(String key, CompletableFuture<SharedResponse> leader, HttpServletRequest request, HttpServletResponse response,
+                      FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            leader.complete(new SharedResponse(responseWrapper.getStatus(), responseWrapper.getContentType(),
+                    headersOf(responseWrapper), responseWrapper.getContentAsByteArray()));
+        } catch (ServletException | IOException | RuntimeException e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, leader);
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private static Map<String, List<String>> headersOf(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            // Each follower sets these from the shared body and content type.
+            if (!name.equalsIgnoreCase(HttpHeaders.CONTENT_TYPE) && !name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)) {
+                headers.putIfAbsent(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private SharedResponse await(CompletableFuture<SharedResponse> leader) {
+        try {
+            return leader.get(this.maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private record SharedResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body) {
+    }
+}
@@ -12,5 +12,9 @@ public class StatusCode {
 
     public static final int NOT_FOUND = 404;
 
+    public static final int PRECONDITION_FAILED = 412;
+
+    public static final int TOO_MANY_REQUESTS = 429;
+
     public static final int INTERNAL_SERVER_ERROR = 500;
 }
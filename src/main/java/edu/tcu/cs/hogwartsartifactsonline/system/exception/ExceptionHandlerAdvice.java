@@ -2,7 +2,11 @@ package edu.tcu.cs.hogwartsartifactsonline.system.exception;
 
 import edu.tcu.cs.hogwartsartifactsonline.system.Result;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -29,6 +33,19 @@ public class ExceptionHandlerAdvice {
         return new Result(false, StatusCode.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    Result handlePreconditionFailedException(PreconditionFailedException ex) {
+        return new Result(false, StatusCode.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    // Another write committed between reading the entity and flushing the change.
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    Result handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException ex) {
+        return new Result(false, StatusCode.PRECONDITION_FAILED, "The record has changed since it was read", ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     Result handleValidationException(MethodArgumentNotValidException ex) {
@@ -42,6 +59,18 @@ public class ExceptionHandlerAdvice {
         return new Result(false, StatusCode.INVALID_ARGUMENT,"Provided arguments are invalid, see data for details", map);
     }
 
+    @ExceptionHandler({InvalidCursorException.class, UnsupportedSortException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    Result handleInvalidPageRequestException(RuntimeException ex) {
+        return new Result(false, StatusCode.INVALID_ARGUMENT, ex.getMessage());
+    }
+
+    @ExceptionHandler(PropertyReferenceException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    Result handlePropertyReferenceException(PropertyReferenceException ex) {
+        return new Result(false, StatusCode.INVALID_ARGUMENT, "Cannot sort by " + ex.getPropertyName());
+    }
+
     @ExceptionHandler({UsernameNotFoundException.class, BadCredentialsException.class})
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     Result handleAuthenticationException(Exception ex) {
@@ -60,6 +89,13 @@ public class ExceptionHandlerAdvice {
         return new Result(false, StatusCode.UNAUTHORIZED, "The access token provided is expired, revoked, malformed or invalid for other reasons", ex.getMessage());
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    Result handleTooManyRequestsException(TooManyRequestsException ex, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return new Result(false, StatusCode.TOO_MANY_REQUESTS, ex.getMessage());
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     Result handleAccessDeniedException(AccessDeniedException ex) {
@@ -9,4 +9,8 @@ public class ObjectNotFoundException extends RuntimeException {
     public ObjectNotFoundException(String name, Integer Id) {
         super("Could not find " + name +" with Id " + Id);
     }
+
+    public ObjectNotFoundException(String name, Long Id) {
+        super("Could not find " + name +" with Id " + Id);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package edu.tcu.cs.hogwartsartifactsonline.system.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String name, Integer Id) {
+        super("The " + name + " with Id " + Id + " has changed since it was read");
+    }
+
+    public PreconditionFailedException(String name, Long Id) {
+        super("The " + name + " with Id " + Id + " has changed since it was read");
+    }
+}
@@ -0,0 +1,16 @@
+package edu.tcu.cs.hogwartsartifactsonline.system.exception;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Thrown when a bounded resource is saturated and the request should be retried later.
+ * <p>
+ * It is an authentication exception so that a login turned away while verifying the password still reaches the
+ * Basic entry point, and through it {@link ExceptionHandlerAdvice}, rather than escaping the filter chain.
+ */
+public class TooManyRequestsException extends InternalAuthenticationServiceException {
+
+    public TooManyRequestsException(String resource) {
+        super("Too many concurrent " + resource + " requests, please retry later");
+    }
+}
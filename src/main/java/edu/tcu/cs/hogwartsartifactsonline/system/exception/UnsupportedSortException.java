@@ -0,0 +1,8 @@
+package edu.tcu.cs.hogwartsartifactsonline.system.exception;
+
+public class UnsupportedSortException extends RuntimeException {
+
+    public UnsupportedSortException(String property) {
+        super("Cannot sort by " + property);
+    }
+}
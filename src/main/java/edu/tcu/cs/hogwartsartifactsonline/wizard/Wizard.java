@@ -2,12 +2,20 @@ package edu.tcu.cs.hogwartsartifactsonline.wizard;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "wizard")
+@Table(indexes = {
+        @Index(name = "idx_wizard_name", columnList = "name, id"),
+        @Index(name = "idx_wizard_artifact_count", columnList = "artifactCount, id")
+})
 public class Wizard implements Serializable {
 
     @Id
@@ -16,9 +24,18 @@ public class Wizard implements Serializable {
 
     private String name;
 
+    // Write paths leave this list alone when wizard.large-ownership is on; see WizardService.
     @OneToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, mappedBy = "owner")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "wizard-artifacts")
     private List<Artifact> artifacts = new ArrayList<>();
 
+    // Kept in step with the artifacts collection so that counting never has to initialize it.
+    @Column(nullable = false)
+    private int artifactCount;
+
+    @Version
+    private int version;
+
     public Wizard() {
     }
 
@@ -38,6 +55,14 @@ public class Wizard implements Serializable {
         this.name = name;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public List<Artifact> getArtifacts() {
         return artifacts;
     }
@@ -49,19 +74,23 @@ public class Wizard implements Serializable {
     public void addArtifact(Artifact artifact) {
         artifact.setOwner(this);
         this.artifacts.add(artifact);
+        this.artifactCount++;
     }
 
     public Integer getNumberOfArtifacts() {
-        return this.artifacts.size();
+        return this.artifactCount;
     }
 
     public void removeAllArtifacts() {
         this.artifacts.forEach(artifact -> artifact.setOwner(null));
         this.artifacts = null;
+        this.artifactCount = 0;
     }
 
     public void removeArtifact(Artifact artifact) {
         artifact.setOwner(null);
-        this.artifacts.remove(artifact);
+        if (this.artifacts.remove(artifact)) {
+            this.artifactCount--;
+        }
     }
 }
@@ -0,0 +1,42 @@
+package edu.tcu.cs.hogwartsartifactsonline.wizard;
+
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically compares each wizard's denormalized artifact count with the artifacts it actually owns
+ * and repairs any drift, e.g. from writes that bypassed {@link Wizard#addArtifact} and friends.
+ */
+@Component
+public class WizardArtifactCountReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WizardArtifactCountReconciler.class);
+
+    private final WizardRepository wizardRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WizardArtifactCountReconciler(WizardRepository wizardRepository, ApplicationEventPublisher eventPublisher) {
+        this.wizardRepository = wizardRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(initialDelayString = "${wizard.artifact-count.reconcile-interval}",
+            fixedDelayString = "${wizard.artifact-count.reconcile-interval}")
+    @Transactional
+    public List<Integer> reconcile() {
+        List<Integer> driftedWizardIds = this.wizardRepository.findIdsWithArtifactCountDrift();
+        if (!driftedWizardIds.isEmpty()) {
+            LOGGER.warn("Repairing artifact count drift on wizards {}", driftedWizardIds);
+            this.wizardRepository.recountArtifacts(driftedWizardIds);
+            this.eventPublisher.publishEvent(new WizardChangedEvent(driftedWizardIds));
+        }
+        return driftedWizardIds;
+    }
+}
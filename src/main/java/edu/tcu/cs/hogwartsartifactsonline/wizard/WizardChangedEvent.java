@@ -0,0 +1,9 @@
+package edu.tcu.cs.hogwartsartifactsonline.wizard;
+
+import java.util.Collection;
+
+/**
+ * Published by writes that change a wizard's name or artifact count.
+ */
+public record WizardChangedEvent(Collection<Integer> wizardIds) {
+}
@@ -1,14 +1,32 @@
 package edu.tcu.cs.hogwartsartifactsonline.wizard;
 
+import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.ArtifactIdCodec;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogReplica;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogSnapshot;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
+import edu.tcu.cs.hogwartsartifactsonline.system.EntityTagCodec;
 import edu.tcu.cs.hogwartsartifactsonline.system.Result;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
 import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardDtoToWizardConverter;
 import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardToWizardDtoConverter;
 import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @RestController
@@ -21,30 +39,80 @@ public class WizardController {
 
     private final WizardDtoToWizardConverter wizardDtoToWizardConverter;
 
+    private final ArtifactIdCodec artifactIdCodec;
+
+    private final ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter;
+
+    private final WizardDtoCache wizardDtoCache;
+
+    private final CatalogReplica catalogReplica;
+
+    // The ETag of the wizard list last served and when it changed to it, since the table does not record when a row
+    // was updated.
+    private final AtomicReference<ListVersion> wizardListVersion = new AtomicReference<>();
+
     public WizardController(WizardService wizardService,
                             WizardToWizardDtoConverter wizardToWizardDtoConverter,
-                            WizardDtoToWizardConverter wizardDtoToWizardConverter) {
+                            WizardDtoToWizardConverter wizardDtoToWizardConverter,
+                            ArtifactIdCodec artifactIdCodec,
+                            ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter,
+                            WizardDtoCache wizardDtoCache,
+                            CatalogReplica catalogReplica) {
         this.wizardService = wizardService;
         this.wizardToWizardDtoConverter = wizardToWizardDtoConverter;
         this.wizardDtoToWizardConverter = wizardDtoToWizardConverter;
+        this.artifactIdCodec = artifactIdCodec;
+        this.artifactToArtifactDtoConverter = artifactToArtifactDtoConverter;
+        this.wizardDtoCache = wizardDtoCache;
+        this.catalogReplica = catalogReplica;
     }
 
     @GetMapping("/{wizardId}")
-    public Result findWizardById(@PathVariable Integer wizardId) {
-        Wizard wizard = this.wizardService.findById(wizardId);
-        WizardDto wizardDto = this.wizardToWizardDtoConverter.convert(wizard);
+    public Result findWizardById(@PathVariable Integer wizardId, WebRequest webRequest) {
+        WizardDto wizardDto = this.wizardDtoCache.get(wizardId);
+        if (webRequest.checkNotModified(EntityTagCodec.encode(wizardDto.version()))) {
+            return null;
+        }
         return new Result(true, StatusCode.SUCCESS, "Find One Success", wizardDto);
     }
 
     @GetMapping
-    public Result findAllWizards() {
-        List<Wizard> foundWizards = this.wizardService.findAll();
-        List<WizardDto> wizardDtos = foundWizards.stream()
-                .map(this.wizardToWizardDtoConverter::convert)
-                .collect(Collectors.toList());
+    public Result findAllWizards(WebRequest webRequest) {
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+        Collection<WizardDto> wizardDtos = snapshot != null
+                ? snapshot.wizards()
+                : this.wizardService.findAll().stream().map(this.wizardToWizardDtoConverter::convert).collect(Collectors.toList());
+        String etag = EntityTagCodec.encodeAll(wizardDtos, WizardDto::id, WizardDto::version);
+        if (webRequest.checkNotModified(etag, lastModified(etag))) {
+            return null;
+        }
         return new Result(true, StatusCode.SUCCESS, "Find All Success", wizardDtos);
     }
 
+    private long lastModified(String etag) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        ListVersion served = this.wizardListVersion.updateAndGet(previous -> {
+            if (previous == null) {
+                return new ListVersion(etag, now);
+            }
+            if (previous.etag().equals(etag)) {
+                return previous;
+            }
+            // A second change within the same second still has to move Last-Modified for If-Modified-Since.
+            Instant next = previous.lastModified().plusSeconds(1);
+            return new ListVersion(etag, now.isAfter(next) ? now : next);
+        });
+        return served.lastModified().toEpochMilli();
+    }
+
+    @GetMapping("/page")
+    public Result findWizardPage(@RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "20") int size,
+                                 @RequestParam(defaultValue = "name") String sort) {
+        CursorPage<WizardDto> wizardDtoPage = this.wizardService.findPage(cursor, size, sort);
+        return new Result(true, StatusCode.SUCCESS, "Find Page Success", wizardDtoPage);
+    }
+
     @PostMapping
     public Result addWizard(@Valid @RequestBody WizardDto wizardDto) {
         Wizard newWizard = this.wizardDtoToWizardConverter.convert(wizardDto);
@@ -54,9 +122,12 @@ public class WizardController {
     }
 
     @PutMapping("/{wizardId}")
-    public Result updateWizard(@PathVariable Integer wizardId, @Valid @RequestBody WizardDto wizardDto) {
+    public Result updateWizard(@PathVariable Integer wizardId, @Valid @RequestBody WizardDto wizardDto,
+                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                               HttpServletResponse response) {
         Wizard update = this.wizardDtoToWizardConverter.convert(wizardDto);
-        Wizard updatedWizard = this.wizardService.update(wizardId, update);
+        Wizard updatedWizard = this.wizardService.update(wizardId, update, EntityTagCodec.decodeIfMatch(ifMatch));
+        response.setHeader(HttpHeaders.ETAG, EntityTagCodec.encode(updatedWizard.getVersion()));
         WizardDto updateWizardDto = this.wizardToWizardDtoConverter.convert(updatedWizard);
         return new Result(true, StatusCode.SUCCESS, "Update Success", updateWizardDto);
     }
@@ -67,9 +138,40 @@ public class WizardController {
         return new Result(true, StatusCode.SUCCESS, "Delete Success");
     }
 
+    @GetMapping("/{wizardId}/artifacts")
+    public Result findWizardArtifacts(@PathVariable Integer wizardId, @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+        if (snapshot != null) {
+            // An unknown wizard is a 404, as it is on the database path, not an empty page.
+            snapshot.requireWizard(wizardId);
+            Page<ArtifactDto> artifactDtos = snapshot.artifactsOwnedBy(wizardId, pageable);
+            if (artifactDtos != null) {
+                return new Result(true, StatusCode.SUCCESS, "Find All Success", artifactDtos);
+            }
+        }
+        Page<Artifact> foundArtifacts = this.wizardService.findArtifacts(wizardId, pageable);
+        Page<ArtifactDto> artifactDtos = foundArtifacts.map(this.artifactToArtifactDtoConverter::convert);
+        return new Result(true, StatusCode.SUCCESS, "Find All Success", artifactDtos);
+    }
+
+    @PutMapping("/{wizardId}/artifacts")
+    public Result assignArtifacts(@PathVariable Integer wizardId, @RequestBody List<String> artifactIds) {
+        int assigned = this.wizardService.assignArtifacts(wizardId, this.artifactIdCodec.decodeAll(artifactIds));
+        return new Result(true, StatusCode.SUCCESS, "Artifact Assignment Success", assigned);
+    }
+
+    @PutMapping("/{wizardId}/artifacts/transfer/{newOwnerId}")
+    public Result transferArtifacts(@PathVariable Integer wizardId, @PathVariable Integer newOwnerId) {
+        int transferred = this.wizardService.transferArtifacts(wizardId, newOwnerId);
+        return new Result(true, StatusCode.SUCCESS, "Artifact Transfer Success", transferred);
+    }
+
     @PutMapping("/{wizardId}/artifacts/{artifactId}")
     public Result assignArtifact(@PathVariable Integer wizardId, @PathVariable String artifactId) {
-        this.wizardService.assignArtifact(wizardId, artifactId);
+        this.wizardService.assignArtifact(wizardId, this.artifactIdCodec.decode(artifactId));
         return new Result(true, StatusCode.SUCCESS, "Artifact Assignment Success");
     }
+
+    private record ListVersion(String etag, Instant lastModified) {
+    }
 }
@@ -0,0 +1,53 @@
+package edu.tcu.cs.hogwartsartifactsonline.wizard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogReplica;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogSnapshot;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardToWizardDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-through cache of {@link WizardDto}s by wizard id, sized and expired by {@code spring.cache.caffeine.spec}.
+ * Entries are dropped once the transaction that changed the wizard commits, so a concurrent read cannot put
+ * the old state back. While the {@link CatalogReplica} is loaded, wizards are read from it instead.
+ */
+@Component
+public class WizardDtoCache {
+
+    public static final String CACHE_NAME = "wizards";
+
+    private final Cache<Integer, WizardDto> cache;
+
+    private final WizardService wizardService;
+
+    private final WizardToWizardDtoConverter wizardToWizardDtoConverter;
+
+    private final CatalogReplica catalogReplica;
+
+    @SuppressWarnings("unchecked")
+    public WizardDtoCache(CacheManager cacheManager, WizardService wizardService, WizardToWizardDtoConverter wizardToWizardDtoConverter,
+                          CatalogReplica catalogReplica) {
+        this.cache = (Cache<Integer, WizardDto>) cacheManager.getCache(CACHE_NAME).getNativeCache();
+        this.wizardService = wizardService;
+        this.wizardToWizardDtoConverter = wizardToWizardDtoConverter;
+        this.catalogReplica = catalogReplica;
+    }
+
+    public WizardDto get(Integer wizardId) {
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+        if (snapshot != null) {
+            return snapshot.wizard(wizardId);
+        }
+        return this.cache.get(wizardId, id -> this.wizardToWizardDtoConverter.convert(this.wizardService.findById(id)));
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWizardChanged(WizardChangedEvent event) {
+        this.cache.invalidateAll(event.wizardIds());
+    }
+}
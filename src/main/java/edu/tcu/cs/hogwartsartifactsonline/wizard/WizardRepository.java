@@ -1,8 +1,80 @@
 package edu.tcu.cs.hogwartsartifactsonline.wizard;
 
+import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface WizardRepository extends JpaRepository<Wizard, Integer> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Wizard> findAll();
+
+    // Keyset listings: each selects only the DTO columns and walks one of the (key, id) indexes declared on Wizard.
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto(w.id, w.name, w.artifactCount, w.version) from Wizard w " +
+            "order by w.name, w.id")
+    List<WizardDto> findDtosOrderByName(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto(w.id, w.name, w.artifactCount, w.version) from Wizard w " +
+            "where w.name >= :name and (w.name > :name or w.id > :id) order by w.name, w.id")
+    List<WizardDto> findDtosOrderByNameAfter(String name, Integer id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto(w.id, w.name, w.artifactCount, w.version) from Wizard w " +
+            "order by w.artifactCount, w.id")
+    List<WizardDto> findDtosOrderByArtifactCount(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto(w.id, w.name, w.artifactCount, w.version) from Wizard w " +
+            "where w.artifactCount >= :artifactCount and (w.artifactCount > :artifactCount or w.id > :id) order by w.artifactCount, w.id")
+    List<WizardDto> findDtosOrderByArtifactCountAfter(int artifactCount, Integer id, Pageable pageable);
+
+    @Query("select w.id from Wizard w where w.artifactCount <> (select count(a) from Artifact a where a.owner = w)")
+    List<Integer> findIdsWithArtifactCountDrift();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Wizard w set w.artifactCount = (select count(a) from Artifact a where a.owner = w) where w.id in :wizardIds")
+    int recountArtifacts(Collection<Integer> wizardIds);
+
+    /**
+     * Takes the given artifacts off their owners' counts; run it before the artifacts are deleted or reassigned.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Wizard w set w.artifactCount = cast(w.artifactCount - (select count(a) from Artifact a where a.owner = w and a.id in :artifactIds) as Integer) " +
+            "where w.id in (select a.owner.id from Artifact a where a.id in :artifactIds)")
+    int releaseArtifacts(Collection<Long> artifactIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Wizard w set w.artifactCount = 0 where w.id = :wizardId")
+    int releaseAllArtifacts(Integer wizardId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Wizard w set w.artifactCount = w.artifactCount + :count where w.id = :wizardId")
+    int addToArtifactCount(Integer wizardId, int count);
+
+    /**
+     * Adds the artifacts currently owned by {@code previousOwnerId} to the count of {@code wizardId};
+     * run it before the artifacts are moved.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Wizard w set w.artifactCount = cast(w.artifactCount + (select count(a) from Artifact a where a.owner.id = :previousOwnerId) as Integer) " +
+            "where w.id = :wizardId")
+    int takeOverArtifactCount(Integer wizardId, Integer previousOwnerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Wizard w where w.id = :wizardId")
+    int deleteWizardById(Integer wizardId);
 }
@@ -1,26 +1,50 @@
 package edu.tcu.cs.hogwartsartifactsonline.wizard;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactChangedEvent;
 import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactRepository;
-import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorCodec;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.InvalidCursorException;
 import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.PreconditionFailedException;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.UnsupportedSortException;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class WizardService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final WizardRepository wizardRepository;
 
     private final ArtifactRepository artifactRepository;
 
-    public WizardService(WizardRepository wizardRepository, ArtifactRepository artifactRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean largeOwnership;
+
+    public WizardService(WizardRepository wizardRepository, ArtifactRepository artifactRepository, ApplicationEventPublisher eventPublisher,
+                         @Value("${wizard.large-ownership}") boolean largeOwnership) {
         this.wizardRepository = wizardRepository;
         this.artifactRepository = artifactRepository;
+        this.eventPublisher = eventPublisher;
+        this.largeOwnership = largeOwnership;
     }
 
     public Wizard findById(Integer wizardId) {
@@ -32,27 +56,125 @@ public class WizardService {
         return this.wizardRepository.findAll();
     }
 
+    /**
+     * Returns one page of wizards ordered by {@code sort}, which is either "name" or "numberOfArtifacts", and then by id.
+     */
+    public CursorPage<WizardDto> findPage(String cursor, int size, String sort) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean firstPage = cursor == null || cursor.isEmpty();
+        // Fetch one extra row to learn whether another page follows without a count query.
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<WizardDto> wizards = switch (sort) {
+            case "name" -> {
+                if (firstPage) {
+                    yield this.wizardRepository.findDtosOrderByName(limit);
+                }
+                String[] key = decodeCursor(cursor, sort);
+                yield this.wizardRepository.findDtosOrderByNameAfter(key[1], parseKeyPart(cursor, key[2]), limit);
+            }
+            case "numberOfArtifacts" -> {
+                if (firstPage) {
+                    yield this.wizardRepository.findDtosOrderByArtifactCount(limit);
+                }
+                String[] key = decodeCursor(cursor, sort);
+                yield this.wizardRepository.findDtosOrderByArtifactCountAfter(parseKeyPart(cursor, key[1]), parseKeyPart(cursor, key[2]), limit);
+            }
+            default -> throw new UnsupportedSortException(sort);
+        };
+        if (wizards.size() <= pageSize) {
+            return new CursorPage<>(wizards, null);
+        }
+        List<WizardDto> page = wizards.subList(0, pageSize);
+        WizardDto last = page.get(pageSize - 1);
+        String sortKey = sort.equals("name") ? last.name() : last.numberOfArtifacts().toString();
+        return new CursorPage<>(page, CursorCodec.encode(sort, sortKey, last.id().toString()));
+    }
+
+    // The sort is part of the cursor, so a cursor cannot be replayed against a different order.
+    private static String[] decodeCursor(String cursor, String sort) {
+        String[] key = CursorCodec.decode(cursor, 3);
+        if (!key[0].equals(sort)) {
+            throw new InvalidCursorException(cursor);
+        }
+        return key;
+    }
+
+    private static int parseKeyPart(String cursor, String keyPart) {
+        try {
+            return Integer.parseInt(keyPart);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public Page<Artifact> findArtifacts(Integer wizardId, Pageable pageable) {
+        if (!this.wizardRepository.existsById(wizardId)) {
+            throw new ObjectNotFoundException("wizard", wizardId);
+        }
+        return this.artifactRepository.findByOwnerId(wizardId, pageable);
+    }
+
     public Wizard save(Wizard newWizard) {
-        return this.wizardRepository.save(newWizard);
+        Wizard savedWizard = this.wizardRepository.save(newWizard);
+        this.eventPublisher.publishEvent(new WizardChangedEvent(List.of(savedWizard.getId())));
+        return savedWizard;
     }
 
-    public Wizard update(Integer wizardId, Wizard wizard) {
-        return this.wizardRepository.findById(wizardId)
+    /**
+     * Renames the wizard, provided it is still at {@code expectedVersion} when that is not null.
+     */
+    public Wizard update(Integer wizardId, Wizard wizard, Integer expectedVersion) {
+        Wizard updatedWizard = this.wizardRepository.findById(wizardId)
                 .map(oldWizard -> {
+                    if (expectedVersion != null && expectedVersion != oldWizard.getVersion()) {
+                        throw new PreconditionFailedException("wizard", wizardId);
+                    }
                     oldWizard.setName(wizard.getName());
                     return this.wizardRepository.save(oldWizard);
                 })
                 .orElseThrow(() -> new ObjectNotFoundException("wizard", wizardId));
+        this.eventPublisher.publishEvent(new WizardChangedEvent(List.of(wizardId)));
+        return updatedWizard;
     }
 
+    /**
+     * Unassigns the wizard's artifacts and deletes the wizard in two statements, however many artifacts it owns.
+     */
     public void delete(Integer wizardId) {
-        Wizard wizardToBeDeleted = this.wizardRepository.findById(wizardId)
-                .orElseThrow(() -> new ObjectNotFoundException("wizard", wizardId));
-        wizardToBeDeleted.removeAllArtifacts();
-        this.wizardRepository.deleteById(wizardId);
+        this.artifactRepository.unassignAllFromOwner(wizardId);
+        if (this.wizardRepository.deleteWizardById(wizardId) == 0) {
+            throw new ObjectNotFoundException("wizard", wizardId);
+        }
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofOwner(wizardId));
+        this.eventPublisher.publishEvent(new WizardChangedEvent(List.of(wizardId)));
+    }
+
+    /**
+     * Moves every artifact of one wizard to another in three statements and returns how many were moved.
+     */
+    public int transferArtifacts(Integer wizardId, Integer newOwnerId) {
+        if (wizardId.equals(newOwnerId)) {
+            findById(wizardId);
+            return 0;
+        }
+        // Counts are adjusted first: a missing wizard then fails before any artifact points at it.
+        if (this.wizardRepository.takeOverArtifactCount(newOwnerId, wizardId) == 0) {
+            throw new ObjectNotFoundException("wizard", newOwnerId);
+        }
+        if (this.wizardRepository.releaseAllArtifacts(wizardId) == 0) {
+            throw new ObjectNotFoundException("wizard", wizardId);
+        }
+        int transferred = this.artifactRepository.transferAllFromOwner(wizardId, this.wizardRepository.getReferenceById(newOwnerId));
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofOwner(wizardId));
+        this.eventPublisher.publishEvent(new WizardChangedEvent(List.of(wizardId, newOwnerId)));
+        return transferred;
     }
 
-    public void assignArtifact(Integer wizardId, String artifactId) {
+    public void assignArtifact(Integer wizardId, Long artifactId) {
+        if (this.largeOwnership) {
+            assignArtifacts(wizardId, List.of(artifactId));
+            return;
+        }
 
         Artifact artifactToBeAssigned = this.artifactRepository.findById(artifactId)
                 .orElseThrow(() -> new ObjectNotFoundException("artifact", artifactId));
@@ -60,9 +182,41 @@ public class WizardService {
         Wizard wizard = this.wizardRepository.findById(wizardId)
                 .orElseThrow(() -> new ObjectNotFoundException("wizard", wizardId));
 
+        List<Integer> changedWizardIds = new ArrayList<>(List.of(wizardId));
         if (artifactToBeAssigned.getOwner() != null) {
+            changedWizardIds.add(artifactToBeAssigned.getOwner().getId());
             artifactToBeAssigned.getOwner().removeArtifact(artifactToBeAssigned);
         }
         wizard.addArtifact(artifactToBeAssigned);
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(List.of(artifactId)));
+        this.eventPublisher.publishEvent(new WizardChangedEvent(changedWizardIds));
+    }
+
+    /**
+     * Assigns all the given artifacts to one wizard with a fixed number of statements, without loading any
+     * wizard's artifact list. Returns the number of artifacts assigned.
+     */
+    public int assignArtifacts(Integer wizardId, List<Long> artifactIds) {
+        Set<Long> distinctIds = new LinkedHashSet<>(artifactIds);
+        Set<Long> foundIds = new HashSet<>(this.artifactRepository.findIdsByIdIn(distinctIds));
+        for (Long artifactId : distinctIds) {
+            if (!foundIds.contains(artifactId)) {
+                throw new ObjectNotFoundException("artifact", artifactId);
+            }
+        }
+        if (this.wizardRepository.addToArtifactCount(wizardId, distinctIds.size()) == 0) {
+            throw new ObjectNotFoundException("wizard", wizardId);
+        }
+        if (distinctIds.isEmpty()) {
+            return 0;
+        }
+        Set<Integer> changedWizardIds = new HashSet<>(this.artifactRepository.findOwnerIdsByIdIn(distinctIds));
+        changedWizardIds.add(wizardId);
+        // Also takes back the artifacts this wizard already owned, which the addition above counted again.
+        this.wizardRepository.releaseArtifacts(distinctIds);
+        int assigned = this.artifactRepository.assignAllToOwner(distinctIds, this.wizardRepository.getReferenceById(wizardId));
+        this.eventPublisher.publishEvent(ArtifactChangedEvent.ofArtifacts(distinctIds));
+        this.eventPublisher.publishEvent(new WizardChangedEvent(changedWizardIds));
+        return assigned;
     }
 }
@@ -10,6 +10,6 @@ public class WizardToWizardDtoConverter implements Converter<Wizard, WizardDto>
 
     @Override
     public WizardDto convert(Wizard source) {
-        return new WizardDto(source.getId(), source.getName(), source.getNumberOfArtifacts());
+        return new WizardDto(source.getId(), source.getName(), source.getNumberOfArtifacts(), source.getVersion());
     }
 }
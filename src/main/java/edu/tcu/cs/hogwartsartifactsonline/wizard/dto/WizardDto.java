@@ -1,9 +1,15 @@
 package edu.tcu.cs.hogwartsartifactsonline.wizard.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotEmpty;
 
+/**
+ * The {@code version} is not part of the body; it is sent as the ETag.
+ */
 public record WizardDto(Integer id,
                         @NotEmpty(message = "name is required")
                         String name,
-                        Integer numberOfArtifacts) {
+                        Integer numberOfArtifacts,
+                        @JsonIgnore
+                        Integer version) {
 }
@@ -0,0 +1,6 @@
+-- Converts artifact ids stored as decimal strings to BIGINT.
+-- Every id ever issued is IdWorker.nextId() written out in decimal, so the conversion is lossless.
+-- Check first that no hand-entered id would break it; this must return no rows:
+--   SELECT id FROM artifact WHERE NOT REGEXP_LIKE(id, '^[0-9]{1,19}$');
+-- On PostgreSQL use: ALTER TABLE artifact ALTER COLUMN id TYPE BIGINT USING id::bigint;
+ALTER TABLE artifact ALTER COLUMN id SET DATA TYPE BIGINT;
@@ -0,0 +1,5 @@
+-- Backs GET /wizards/{id}/artifacts and GET /artifacts?ownerId=... with an index on the owner column.
+-- The trailing id lets the default sort read rows in index order.
+CREATE INDEX idx_artifact_owner_id ON artifact (owner_id, id);
+-- On PostgreSQL also add a partial index, so listing unassigned artifacts only scans those rows:
+--   CREATE INDEX idx_artifact_unassigned ON artifact (id) WHERE owner_id IS NULL;
@@ -0,0 +1,5 @@
+-- Backs the keyset listings GET /wizards/page and GET /users/page. Each index ends with id,
+-- which breaks ties in the sort key, so every page is a single index range scan.
+CREATE INDEX idx_wizard_name ON wizard (name, id);
+CREATE INDEX idx_wizard_artifact_count ON wizard (artifact_count, id);
+CREATE INDEX idx_hogwarts_user_username ON hogwarts_user (username, id);
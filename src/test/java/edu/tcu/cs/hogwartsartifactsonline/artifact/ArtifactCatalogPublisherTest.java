@@ -0,0 +1,182 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.ArtifactIdCodec;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogReplica;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardChangedEvent;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardToWizardDtoConverter;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtifactCatalogPublisherTest {
+
+    @Mock
+    ArtifactService artifactService;
+
+    @Mock
+    CatalogReplica catalogReplica;
+
+    @Mock
+    TaskScheduler taskScheduler;
+
+    @TempDir
+    Path directory;
+
+    ArtifactCatalogPublisher artifactCatalogPublisher;
+
+    Artifact wand;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter =
+                new ArtifactToArtifactDtoConverter(new WizardToWizardDtoConverter(), new ArtifactIdCodec(ArtifactIdCodec.Format.DECIMAL));
+        this.artifactCatalogPublisher = new ArtifactCatalogPublisher(this.artifactService, artifactToArtifactDtoConverter, this.catalogReplica,
+                new ObjectMapper(), this.taskScheduler, Duration.ofSeconds(1), this.directory);
+
+        this.wand = new Artifact();
+        this.wand.setId(11L);
+        this.wand.setName("Wand");
+        this.wand.setDescription("Wand desc");
+    }
+
+    @Test
+    void testWriteBuildsSnapshotOnce() throws Exception {
+        given(this.artifactService.findAll()).willReturn(List.of(this.wand));
+
+        MockHttpServletResponse first = write(new MockHttpServletRequest("GET", "/api/v1/artifacts"));
+        MockHttpServletResponse second = write(new MockHttpServletRequest("GET", "/api/v1/artifacts"));
+
+        JSONObject json = new JSONObject(first.getContentAsString());
+        assertThat(json.getString("message")).isEqualTo("Find All Success");
+        assertThat(json.getJSONArray("data").getJSONObject(0).getString("name")).isEqualTo("Wand");
+        assertThat(first.getContentType()).isEqualTo("application/json");
+        assertThat(first.getHeader("ETag")).matches("\"[0-9a-f]{32}\"");
+        assertThat(first.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(second.getHeader("ETag")).isEqualTo(first.getHeader("ETag"));
+        verify(this.artifactService, times(1)).findAll();
+    }
+
+    @Test
+    void testWriteNotModified() throws Exception {
+        given(this.artifactService.findAll()).willReturn(List.of(this.wand));
+        String etag = write(new MockHttpServletRequest("GET", "/api/v1/artifacts")).getHeader("ETag");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/artifacts");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void testLastModifiedSurvivesRebuildWithSameContent() throws Exception {
+        given(this.artifactService.findAll()).willReturn(List.of(this.wand));
+        MockHttpServletResponse first = write(new MockHttpServletRequest("GET", "/api/v1/artifacts"));
+        this.artifactCatalogPublisher.onArtifactChanged(ArtifactChangedEvent.ofArtifacts(List.of(11L)));
+        runScheduledRebuild();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/artifacts");
+        request.addHeader("If-Modified-Since", first.getHeader("Last-Modified"));
+        MockHttpServletResponse response = write(request);
+
+        assertThat(first.getHeader("Last-Modified")).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(304);
+        verify(this.artifactService, times(2)).findAll();
+    }
+
+    @Test
+    void testWriteGzip() throws Exception {
+        given(this.artifactService.findAll()).willReturn(List.of(this.wand));
+        MockHttpServletResponse plain = write(new MockHttpServletRequest("GET", "/api/v1/artifacts"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/artifacts");
+        request.addHeader("Accept-Encoding", "deflate, gzip;q=0.8");
+        MockHttpServletResponse gzipped = write(request);
+
+        assertThat(gzipped.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gzipped.getHeader("ETag")).isNotEqualTo(plain.getHeader("ETag"));
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plain.getContentAsString());
+        }
+    }
+
+    @Test
+    void testWriteIgnoresRefusedGzip() throws Exception {
+        given(this.artifactService.findAll()).willReturn(List.of(this.wand));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/artifacts");
+        request.addHeader("Accept-Encoding", "gzip;q=0");
+
+        assertThat(write(request).getHeader("Content-Encoding")).isNull();
+    }
+
+    @Test
+    void testChangesServePreviousSnapshotUntilOneScheduledRebuild() throws Exception {
+        Artifact cloak = new Artifact();
+        cloak.setId(22L);
+        cloak.setName("Cloak");
+        given(this.artifactService.findAll()).willReturn(List.of(this.wand), List.of(this.wand, cloak));
+        String etag = write(new MockHttpServletRequest("GET", "/api/v1/artifacts")).getHeader("ETag");
+
+        this.artifactCatalogPublisher.onArtifactChanged(ArtifactChangedEvent.ofArtifacts(List.of(22L)));
+        this.artifactCatalogPublisher.onWizardChanged(new WizardChangedEvent(List.of(1)));
+        MockHttpServletResponse beforeRebuild = write(new MockHttpServletRequest("GET", "/api/v1/artifacts"));
+        runScheduledRebuild();
+        MockHttpServletResponse afterRebuild = write(new MockHttpServletRequest("GET", "/api/v1/artifacts"));
+
+        assertThat(new JSONObject(beforeRebuild.getContentAsString()).getJSONArray("data").length()).isEqualTo(1);
+        assertThat(beforeRebuild.getHeader("ETag")).isEqualTo(etag);
+        assertThat(new JSONObject(afterRebuild.getContentAsString()).getJSONArray("data").length()).isEqualTo(2);
+        assertThat(afterRebuild.getHeader("ETag")).isNotEqualTo(etag);
+        // One rebuild for both changes, and the deletion of the retired snapshot's files.
+        verify(this.taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+        verify(this.artifactService, times(2)).findAll();
+    }
+
+    @Test
+    void testScheduledRebuildServesLaterReads() throws Exception {
+        given(this.artifactService.findAll()).willReturn(List.of(this.wand));
+        this.artifactCatalogPublisher.onArtifactChanged(ArtifactChangedEvent.ofArtifacts(List.of(11L)));
+        runScheduledRebuild();
+        write(new MockHttpServletRequest("GET", "/api/v1/artifacts"));
+
+        verify(this.artifactService, times(1)).findAll();
+    }
+
+    private void runScheduledRebuild() {
+        ArgumentCaptor<Runnable> rebuild = ArgumentCaptor.forClass(Runnable.class);
+        verify(this.taskScheduler, atLeastOnce()).schedule(rebuild.capture(), any(Instant.class));
+        rebuild.getAllValues().get(0).run();
+    }
+
+    private MockHttpServletResponse write(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.artifactCatalogPublisher.write(request, response);
+        return response;
+    }
+}
@@ -2,6 +2,9 @@ package edu.tcu.cs.hogwartsartifactsonline.artifact;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.hamcrest.Matchers;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,12 +21,17 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureMockMvc
 @DisplayName("Integration tests for Arifact API endpoints")
 @Tag("integration")
@@ -35,6 +43,9 @@ public class ArtifactControllerIntegrationTest {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     String token;
 
     @Value("${api.endpoint.base-url}")
@@ -61,6 +72,51 @@ public class ArtifactControllerIntegrationTest {
                 .andExpect(jsonPath("$.data", Matchers.hasSize(6)));
     }
 
+    @Test
+    @DisplayName("Check findAllArtifacts loads owners and their artifact counts in a constant number of statements (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void findAllArtifactsStatementCount() throws Exception {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(6)))
+                .andExpect(jsonPath("$.data[?(@.id == '11')].owner.numberOfArtifacts").value(2));
+
+        // Owners come with the artifacts and carry their own artifact count.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Check findArtifactPage walks the catalog (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void findArtifactPageSuccess() throws Exception {
+        MvcResult firstPage = this.mockMvc.perform(get(this.baseUrl + "/artifacts/page").param("size", "4").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Find Page Success"))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(4)))
+                .andExpect(jsonPath("$.data.next").isNotEmpty())
+                .andReturn();
+        String next = new JSONObject(firstPage.getResponse().getContentAsString()).getJSONObject("data").getString("next");
+
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/page").param("size", "4").param("cursor", next).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(2)))
+                .andExpect(jsonPath("$.data.next").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check findArtifactPage with malformed cursor (GET)")
+    void findArtifactPageErrorWithInvalidCursor() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/page").param("cursor", "%%%").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.message").value("Invalid page cursor %%%"));
+    }
+
     @Test
     @DisplayName("Check findArtifactById (GET)")
     void findArtifactByIdSuccess() throws Exception {
@@ -82,6 +138,16 @@ public class ArtifactControllerIntegrationTest {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
+    @Test
+    @DisplayName("Check findArtifactById with a malformed Id (GET)")
+    void findArtifactByIdMalformed() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/not-an-id").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.NOT_FOUND))
+                .andExpect(jsonPath("$.message").value("Could not find artifact with Id not-an-id"))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
     @Test
     @DisplayName("Check addArtifact with valid input (POST)")
     void testAddArtifactSuccess() throws Exception {
@@ -105,7 +171,7 @@ public class ArtifactControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.name").value("Artifact5"))
                 .andExpect(jsonPath("$.data.description").value("atrifact5desc"))
                 .andExpect(jsonPath("$.data.imageUrl").value("iamgeurl"));
-        this.mockMvc.perform(get(this.baseUrl + "/artifacts").accept(MediaType.APPLICATION_JSON))
+        awaitCatalog(7)
                 .andExpect(jsonPath("$.flag").value(true))
                 .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
                 .andExpect(jsonPath("$.message").value("Find All Success"))
@@ -148,7 +214,7 @@ public class ArtifactControllerIntegrationTest {
     void testUpdateArtifactSuccess() throws Exception {
 
         Artifact artifact = new Artifact();
-        artifact.setId("11");
+        artifact.setId(11L);
         artifact.setName("Artifact update");
         artifact.setDescription("desc update");
         artifact.setImageUrl("imageUrl update");
@@ -174,7 +240,7 @@ public class ArtifactControllerIntegrationTest {
     void testUpdateArtifactErrorWithNonExistentId() throws Exception {
 
         Artifact artifact = new Artifact();
-        artifact.setId("115");
+        artifact.setId(115L);
         artifact.setName("Artifact update");
         artifact.setDescription("desc update");
         artifact.setImageUrl("imageUrl update");
@@ -197,7 +263,7 @@ public class ArtifactControllerIntegrationTest {
     void testUpdateArtifactErrorWithInvalidInput() throws Exception {
 
         Artifact artifact = new Artifact();
-        artifact.setId("11");
+        artifact.setId(11L);
         artifact.setName("");
         artifact.setDescription("");
         artifact.setImageUrl("");
@@ -246,4 +312,315 @@ public class ArtifactControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Could not find artifact with Id 337"))
                 .andExpect(jsonPath("$.data").isEmpty());
     }
+
+    @Test
+    @DisplayName("Check importArtifacts with a JSON array reports invalid rows and imports the rest (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testImportArtifactsFromJsonArray() throws Exception {
+        String json = """
+                [
+                  {"name": "Remembrall", "description": "A glass ball", "imageUrl": "ImageUrl7"},
+                  {"name": "", "description": "No name", "imageUrl": "ImageUrl8"},
+                  {"name": "Sneakoscope", "description": "A spinning top", "imageUrl": "ImageUrl9"}
+                ]
+                """;
+
+        this.mockMvc.perform(post(this.baseUrl + "/artifacts/import").contentType(MediaType.APPLICATION_JSON).content(json)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Import Success"))
+                .andExpect(jsonPath("$.data.completed").value(true))
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.rejected").value(1))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2))
+                .andExpect(jsonPath("$.data.errors[0].errors.name").value("name is required"));
+        awaitCatalog(8)
+                .andExpect(jsonPath("$.data", Matchers.hasSize(8)));
+    }
+
+    @Test
+    @DisplayName("Check importArtifacts with NDJSON skips rows of the wrong shape (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testImportArtifactsFromNdjson() throws Exception {
+        String ndjson = """
+                {"name": "Remembrall", "description": "A glass ball", "imageUrl": "ImageUrl7"}
+                {"name": ["not", "a", "name"], "description": "Wrong shape", "imageUrl": "ImageUrl8"}
+                {"name": "Sneakoscope", "description": "A spinning top", "imageUrl": "ImageUrl9"}
+                """;
+
+        this.mockMvc.perform(post(this.baseUrl + "/artifacts/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.rejected").value(1))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2));
+    }
+
+    @Test
+    @DisplayName("Check importArtifacts with a truncated NDJSON body reports that it stopped (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testImportArtifactsStopsAtMalformedJson() throws Exception {
+        String ndjson = """
+                {"name": "Remembrall", "description": "A glass ball", "imageUrl": "ImageUrl7"}
+                {"name": "Sneakoscope", "description": "A spinn
+                """;
+
+        this.mockMvc.perform(post(this.baseUrl + "/artifacts/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.message").value("Import stopped at malformed JSON, see data for details"))
+                .andExpect(jsonPath("$.data.completed").value(false))
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.rejected").value(1))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2));
+        awaitCatalog(7)
+                .andExpect(jsonPath("$.data", Matchers.hasSize(7)));
+    }
+
+    @Test
+    @DisplayName("Check importArtifacts reports malformed JSON between rows at the row it was found in (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testImportArtifactsReportsMalformedRow() throws Exception {
+        String ndjson = """
+                {"name": "Remembrall", "description": "A glass ball", "imageUrl": "ImageUrl7"}
+                @@@
+                """;
+
+        this.mockMvc.perform(post(this.baseUrl + "/artifacts/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data.completed").value(false))
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2));
+    }
+
+    @Test
+    @DisplayName("Check importArtifacts writes rows in JDBC batches (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testImportArtifactsIsBatched() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            ndjson.append("{\"name\": \"Artifact ").append(i).append("\", \"description\": \"desc\", \"imageUrl\": \"url\"}\n");
+        }
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        this.mockMvc.perform(post(this.baseUrl + "/artifacts/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson.toString())
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.imported").value(120))
+                .andExpect(jsonPath("$.data.rejected").value(0));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        // 120 rows with hibernate.jdbc.batch_size=50 go out as three batches.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Check deleteArtifacts by ids reports the affected rows and keeps owner counts (DELETE)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testDeleteArtifactsByIds() throws Exception {
+        this.mockMvc.perform(delete(this.baseUrl + "/artifacts").param("ids", "11", "22", "337").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Delete Success"))
+                .andExpect(jsonPath("$.data").value(2));
+        awaitCatalog(4)
+                .andExpect(jsonPath("$.data", Matchers.hasSize(4)))
+                .andExpect(jsonPath("$.data[?(@.id == '33')].owner.numberOfArtifacts").value(1))
+                .andExpect(jsonPath("$.data[?(@.id == '44')].owner.numberOfArtifacts").value(1));
+    }
+
+    @Test
+    @DisplayName("Check deleteArtifacts by owner (DELETE)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testDeleteArtifactsByOwner() throws Exception {
+        this.mockMvc.perform(delete(this.baseUrl + "/artifacts").param("ownerId", "1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data").value(2));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(0));
+    }
+
+    @Test
+    @DisplayName("Check patchArtifacts sets only the given fields (PATCH)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testPatchArtifacts() throws Exception {
+        String json = "{\"ids\": [\"11\", \"22\"], \"description\": \"Retired\"}";
+
+        this.mockMvc.perform(patch(this.baseUrl + "/artifacts").contentType(MediaType.APPLICATION_JSON).content(json)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.message").value("Update Success"))
+                .andExpect(jsonPath("$.data").value(2));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/22").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.name").value("Cloak"))
+                .andExpect(jsonPath("$.data.description").value("Retired"));
+    }
+
+    @Test
+    @DisplayName("Check patchArtifacts without a selection (PATCH)")
+    void testPatchArtifactsErrorWithoutSelection() throws Exception {
+        String json = "{\"description\": \"Retired\"}";
+
+        this.mockMvc.perform(patch(this.baseUrl + "/artifacts").contentType(MediaType.APPLICATION_JSON).content(json)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.data.selectionValid").value("exactly one of ids or ownerId is required"));
+    }
+
+    @Test
+    @DisplayName("Check patchArtifacts with blank values (PATCH)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testPatchArtifactsErrorWithBlankValues() throws Exception {
+        String json = "{\"ids\": [\"11\"], \"name\": \"\", \"imageUrl\": \"  \"}";
+
+        this.mockMvc.perform(patch(this.baseUrl + "/artifacts").contentType(MediaType.APPLICATION_JSON).content(json)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.data.name").value("name must not be blank"))
+                .andExpect(jsonPath("$.data.imageUrl").value("imageUrl must not be blank"));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.name").value("Wand"));
+    }
+
+    @Test
+    @DisplayName("Check findArtifactsByOwner lists unassigned artifacts (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindUnassignedArtifacts() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").param("ownerId", "null").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.message").value("Find All Success"))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].id").value("66"))
+                .andExpect(jsonPath("$.data.content[0].owner").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check findArtifactsByOwner lists one wizard's artifacts (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindArtifactsByOwner() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").param("ownerId", "2").param("sort", "name").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(2)))
+                .andExpect(jsonPath("$.data.content[0].name").value("Cloak"))
+                .andExpect(jsonPath("$.data.content[1].id").value("44"));
+    }
+
+    @Test
+    @DisplayName("Check findArtifactById is served from cache and follows owner changes (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindArtifactByIdCachesAndInvalidates() throws Exception {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.owner.name").value("Albus"));
+        statistics.clear();
+
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.owner.name").value("Albus"));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/1").contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Dumbledore\"}")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/3/artifacts/33").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.owner.name").value("Dumbledore"))
+                .andExpect(jsonPath("$.data.owner.numberOfArtifacts").value(1));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/33").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.owner.id").value(3));
+        // The repeated read is answered by ArtifactResponseCache; only the read after the rename reaches the DTO cache.
+        this.mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "name:artifacts", "result:hit")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+    }
+
+    @Test
+    @DisplayName("Check findAllArtifacts is served from the catalog snapshot with an ETag (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindAllArtifactsFromSnapshot() throws Exception {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String etag = this.mockMvc.perform(get(this.baseUrl + "/artifacts").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", Matchers.hasSize(6)))
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").accept(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(6)));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").header("If-None-Match", etag).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        this.mockMvc.perform(delete(this.baseUrl + "/artifacts/66").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+        // Until the debounced rebuild runs, the previous snapshot is still served under its own tag.
+        awaitCatalog(5);
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").header("If-None-Match", etag).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", Matchers.hasSize(5)));
+    }
+
+    @Test
+    @DisplayName("Check findArtifactById answers 304 to a current ETag and updateArtifact rejects a stale If-Match (GET, PUT)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testArtifactEntityTags() throws Exception {
+        String etag = this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isEqualTo("\"0-0\"");
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").header("If-None-Match", etag).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        this.mockMvc.perform(put(this.baseUrl + "/artifacts/11").contentType(MediaType.APPLICATION_JSON).header("If-Match", etag)
+                        .content("{\"name\": \"Elder Wand\", \"description\": \"desc\", \"imageUrl\": \"url\"}")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.version").doesNotExist())
+                .andExpect(header().string("ETag", "\"1-0\""));
+        this.mockMvc.perform(put(this.baseUrl + "/artifacts/11").contentType(MediaType.APPLICATION_JSON).header("If-Match", etag)
+                        .content("{\"name\": \"Wand\", \"description\": \"desc\", \"imageUrl\": \"url\"}")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.PRECONDITION_FAILED))
+                .andExpect(jsonPath("$.message").value("The artifact with Id 11 has changed since it was read"));
+
+        // Renaming the owner changes the representation, not the artifact.
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/1").contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Dumbledore\"}")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").header("If-None-Match", "\"1-0\"").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-1\""))
+                .andExpect(jsonPath("$.data.name").value("Elder Wand"));
+        this.mockMvc.perform(put(this.baseUrl + "/artifacts/11").contentType(MediaType.APPLICATION_JSON).header("If-Match", "\"1-0\"")
+                        .content("{\"name\": \"Wand\", \"description\": \"desc\", \"imageUrl\": \"url\"}")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+    }
+
+    /**
+     * Reads the catalog until it has {@code size} artifacts, since it follows a write once the debounced rebuild ran.
+     */
+    private ResultActions awaitCatalog(int size) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            ResultActions catalog = this.mockMvc.perform(get(this.baseUrl + "/artifacts").accept(MediaType.APPLICATION_JSON));
+            JSONObject json = new JSONObject(catalog.andReturn().getResponse().getContentAsString());
+            if (json.getJSONArray("data").length() == size || System.nanoTime() > deadline) {
+                return catalog;
+            }
+            Thread.sleep(50);
+        }
+    }
 }
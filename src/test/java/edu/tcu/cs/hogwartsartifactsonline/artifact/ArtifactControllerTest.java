@@ -2,6 +2,7 @@ package edu.tcu.cs.hogwartsartifactsonline.artifact;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
 import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
 import org.hamcrest.Matchers;
@@ -50,42 +51,42 @@ class ArtifactControllerTest {
         this.artifacts = new ArrayList<>();
 
         Artifact artifact1 = new Artifact();
-        artifact1.setId("1");
+        artifact1.setId(1L);
         artifact1.setName("Wand");
         artifact1.setDescription("Wand desc");
         artifact1.setImageUrl("ImageUrl1");
         artifacts.add(artifact1);
 
         Artifact artifact2 = new Artifact();
-        artifact2.setId("2");
+        artifact2.setId(2L);
         artifact2.setName("Cloak");
         artifact2.setDescription("Cloak desc");
         artifact2.setImageUrl("ImageUrl2");
         artifacts.add(artifact2);
 
         Artifact artifact3 = new Artifact();
-        artifact3.setId("3");
+        artifact3.setId(3L);
         artifact3.setName("Map");
         artifact3.setDescription("Map desc");
         artifact3.setImageUrl("ImageUrl3");
         artifacts.add(artifact3);
 
         Artifact artifact4 = new Artifact();
-        artifact4.setId("4");
+        artifact4.setId(4L);
         artifact4.setName("Jacket");
         artifact4.setDescription("Jacket desc");
         artifact4.setImageUrl("ImageUrl4");
         artifacts.add(artifact4);
 
         Artifact artifact5 = new Artifact();
-        artifact5.setId("5");
+        artifact5.setId(5L);
         artifact5.setName("Glass");
         artifact5.setDescription("Glass desc");
         artifact5.setImageUrl("ImageUrl5");
         artifacts.add(artifact5);
 
         Artifact artifact6 = new Artifact();
-        artifact6.setId("6");
+        artifact6.setId(6L);
         artifact6.setName("Scar");
         artifact6.setDescription("Scar desc");
         artifact6.setImageUrl("ImageUrl6");
@@ -99,7 +100,7 @@ class ArtifactControllerTest {
     @Test
     void testFindArtifactByIdSuccess() throws Exception {
 
-        given(this.artifactService.findById("1")).willReturn(this.artifacts.get(0));
+        given(this.artifactService.findById(1L)).willReturn(this.artifacts.get(0));
 
         this.mockMvc.perform(get(this.baseUrl + "/artifacts/1").accept(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(true))
@@ -112,7 +113,7 @@ class ArtifactControllerTest {
     @Test
     void testFindArtifactByIdNotFound() throws Exception {
 
-        given(this.artifactService.findById("1")).willThrow(new ObjectNotFoundException("artifact", "1"));
+        given(this.artifactService.findById(1L)).willThrow(new ObjectNotFoundException("artifact", 1L));
 
         this.mockMvc.perform(get(this.baseUrl + "/artifacts/1").accept(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(false))
@@ -137,6 +138,21 @@ class ArtifactControllerTest {
                 .andExpect(jsonPath("$.data[1].name").value("Cloak"));
     }
 
+    @Test
+    void testFindArtifactPageSuccess() throws Exception {
+
+        given(this.artifactService.findPage("abc", 2)).willReturn(new CursorPage<>(this.artifacts.subList(0, 2), "next"));
+
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/page").param("cursor", "abc").param("size", "2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Find Page Success"))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(2)))
+                .andExpect(jsonPath("$.data.content[0].id").value("1"))
+                .andExpect(jsonPath("$.data.content[1].id").value("2"))
+                .andExpect(jsonPath("$.data.next").value("next"));
+    }
+
     @Test
     void testAddArtifactSuccess() throws Exception {
 
@@ -144,12 +160,13 @@ class ArtifactControllerTest {
                 "Arifact5",
                 "atrifact5desc",
                 "iamgeurl",
+                null,
                 null);
 
         String json = this.objectMapper.writeValueAsString(artifactDto);
 
         Artifact savedArtifact = new Artifact();
-        savedArtifact.setId("1220");
+        savedArtifact.setId(1220L);
         savedArtifact.setName("Artifact5");
         savedArtifact.setDescription("atrifact5desc");
         savedArtifact.setImageUrl("iamgeurl");
@@ -163,7 +180,7 @@ class ArtifactControllerTest {
                 .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
                 .andExpect(jsonPath("$.message").value("Add Success"))
                 .andExpect(jsonPath("$.data.id").isNotEmpty())
-                .andExpect(jsonPath("$.data.id").value(savedArtifact.getId()))
+                .andExpect(jsonPath("$.data.id").value("1220"))
                 .andExpect(jsonPath("$.data.name").value(savedArtifact.getName()))
                 .andExpect(jsonPath("$.data.description").value(savedArtifact.getDescription()))
                 .andExpect(jsonPath("$.data.imageUrl").value(savedArtifact.getImageUrl()));
@@ -176,17 +193,18 @@ class ArtifactControllerTest {
                 "Arifact5",
                 "atrifact5desc",
                 "iamgeurl",
+                null,
                 null);
 
         String json = this.objectMapper.writeValueAsString(artifactDto);
 
         Artifact updatedArtifact = new Artifact();
-        updatedArtifact.setId("1220");
+        updatedArtifact.setId(1220L);
         updatedArtifact.setName("Arifact5");
         updatedArtifact.setDescription("atrifact5desc");
         updatedArtifact.setImageUrl("iamgeurl");
 
-        given(this.artifactService.update(eq("1220"), Mockito.any(Artifact.class))).willReturn(updatedArtifact);
+        given(this.artifactService.update(eq(1220L), Mockito.any(Artifact.class), Mockito.isNull())).willReturn(updatedArtifact);
 
         this.mockMvc.perform(put(this.baseUrl + "/artifacts/1220")
                         .contentType(MediaType.APPLICATION_JSON).content(json)
@@ -207,12 +225,13 @@ class ArtifactControllerTest {
                 "Arifact5",
                 "atrifact5desc",
                 "iamgeurl",
+                null,
                 null);
 
         String json = this.objectMapper.writeValueAsString(artifactDto);
 
-        given(this.artifactService.update(eq("1220"), Mockito.any(Artifact.class)))
-                .willThrow(new ObjectNotFoundException("artifact", "1220"));
+        given(this.artifactService.update(eq(1220L), Mockito.any(Artifact.class), Mockito.isNull()))
+                .willThrow(new ObjectNotFoundException("artifact", 1220L));
 
         this.mockMvc.perform(put(this.baseUrl + "/artifacts/1220")
                         .contentType(MediaType.APPLICATION_JSON).content(json)
@@ -226,7 +245,7 @@ class ArtifactControllerTest {
     @Test
     void testDeleteArtifactSuccesss() throws Exception {
 
-        doNothing().when(this.artifactService).delete("1985");
+        doNothing().when(this.artifactService).delete(1985L);
 
         this.mockMvc.perform(delete(this.baseUrl + "/artifacts/1985").accept(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(true))
@@ -238,7 +257,7 @@ class ArtifactControllerTest {
     @Test
     void testDeleteArtifactErrorWithNonExistentId() throws Exception {
 
-        doThrow(new ObjectNotFoundException("artifact", "1985")).when(this.artifactService).delete("1985");
+        doThrow(new ObjectNotFoundException("artifact", 1985L)).when(this.artifactService).delete(1985L);
 
         this.mockMvc.perform(delete(this.baseUrl + "/artifacts/1985").accept(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(false))
@@ -0,0 +1,127 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.ArtifactIdCodec;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogReplica;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardChangedEvent;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardDtoCache;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardService;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardToWizardDtoConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtifactDtoCacheTest {
+
+    @Mock
+    ArtifactService artifactService;
+
+    @Mock
+    WizardService wizardService;
+
+    @Mock
+    CatalogReplica catalogReplica;
+
+    WizardDtoCache wizardDtoCache;
+
+    ArtifactDtoCache artifactDtoCache;
+
+    Wizard wizard;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ArtifactDtoCache.CACHE_NAME, WizardDtoCache.CACHE_NAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100));
+        WizardToWizardDtoConverter wizardToWizardDtoConverter = new WizardToWizardDtoConverter();
+        ArtifactIdCodec artifactIdCodec = new ArtifactIdCodec(ArtifactIdCodec.Format.DECIMAL);
+        this.wizardDtoCache = new WizardDtoCache(cacheManager, this.wizardService, wizardToWizardDtoConverter, this.catalogReplica);
+        this.artifactDtoCache = new ArtifactDtoCache(cacheManager, "maximumSize=100", this.artifactService,
+                new ArtifactToArtifactDtoConverter(wizardToWizardDtoConverter, artifactIdCodec), this.wizardDtoCache, this.catalogReplica);
+
+        this.wizard = new Wizard();
+        this.wizard.setId(1);
+        this.wizard.setName("Albus");
+        for (long id = 11; id <= 12; id++) {
+            Artifact artifact = new Artifact();
+            artifact.setId(id);
+            artifact.setName("Artifact " + id);
+            this.wizard.addArtifact(artifact);
+            lenient().when(this.artifactService.findById(id)).thenReturn(artifact);
+        }
+    }
+
+    @Test
+    void testGetLoadsOnce() {
+        given(this.wizardService.findById(1)).willReturn(this.wizard);
+
+        ArtifactDto first = this.artifactDtoCache.get(11L);
+        ArtifactDto second = this.artifactDtoCache.get(11L);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(second.owner().name()).isEqualTo("Albus");
+        verify(this.artifactService, times(1)).findById(11L);
+        verify(this.wizardService, times(1)).findById(1);
+    }
+
+    @Test
+    void testWizardChangeReachesEveryCachedArtifactOfThatWizard() {
+        Wizard renamed = new Wizard();
+        renamed.setId(1);
+        renamed.setName("Dumbledore");
+        given(this.wizardService.findById(1)).willReturn(this.wizard, renamed);
+        this.artifactDtoCache.get(11L);
+        this.artifactDtoCache.get(12L);
+
+        this.wizardDtoCache.onWizardChanged(new WizardChangedEvent(List.of(1)));
+
+        assertThat(this.artifactDtoCache.get(11L).owner().name()).isEqualTo("Dumbledore");
+        assertThat(this.artifactDtoCache.get(12L).owner().name()).isEqualTo("Dumbledore");
+        verify(this.artifactService, times(1)).findById(11L);
+        verify(this.artifactService, times(1)).findById(12L);
+    }
+
+    @Test
+    void testArtifactChangeOfOwnerEvictsOnlyThatOwnersArtifacts() {
+        given(this.wizardService.findById(1)).willReturn(this.wizard);
+        Artifact unowned = new Artifact();
+        unowned.setId(13L);
+        given(this.artifactService.findById(13L)).willReturn(unowned);
+        this.artifactDtoCache.get(11L);
+        this.artifactDtoCache.get(12L);
+        this.artifactDtoCache.get(13L);
+
+        this.artifactDtoCache.onArtifactChanged(ArtifactChangedEvent.ofOwner(1));
+        this.artifactDtoCache.get(11L);
+        this.artifactDtoCache.get(12L);
+        this.artifactDtoCache.get(13L);
+
+        verify(this.artifactService, times(2)).findById(11L);
+        verify(this.artifactService, times(2)).findById(12L);
+        verify(this.artifactService, times(1)).findById(13L);
+    }
+
+    @Test
+    void testGetNotFoundIsNotCached() {
+        given(this.artifactService.findById(99L)).willThrow(new ObjectNotFoundException("artifact", 99L));
+
+        assertThrows(ObjectNotFoundException.class, () -> this.artifactDtoCache.get(99L));
+        assertThrows(ObjectNotFoundException.class, () -> this.artifactDtoCache.get(99L));
+
+        verify(this.artifactService, times(2)).findById(99L);
+    }
+}
@@ -0,0 +1,127 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary key lookup latency and table size of the artifact table with decimal string ids and with BIGINT ids.
+ * The BIGINT table is produced by running {@code db/migration/artifact-id-bigint.sql} over a VARCHAR table,
+ * so the benchmark exercises the migration as well.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.main=edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactIdStorageBenchmark},
+ * which also prints the space H2 reports for each table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactIdStorageBenchmark {
+
+    @Param({"VARCHAR", "BIGINT"})
+    public String idType;
+
+    @Param({"100000"})
+    public int rows;
+
+    private Connection connection;
+
+    private PreparedStatement findById;
+
+    private long[] ids;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:artifact-id-" + this.idType);
+        this.ids = createArtifactTable(this.connection, this.idType, this.rows);
+        this.findById = this.connection.prepareStatement("select name from artifact where id = ?");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        this.connection.close();
+    }
+
+    @Benchmark
+    public String findById() throws SQLException {
+        long id = this.ids[ThreadLocalRandom.current().nextInt(this.ids.length)];
+        if ("BIGINT".equals(this.idType)) {
+            this.findById.setLong(1, id);
+        } else {
+            this.findById.setString(1, Long.toString(id));
+        }
+        try (ResultSet resultSet = this.findById.executeQuery()) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    static long[] createArtifactTable(Connection connection, String idType, int rows) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table artifact (id varchar(255) not null primary key, name varchar(255), "
+                    + "description varchar(255), image_url varchar(255), owner_id integer)");
+        }
+        long[] ids = new IdWorker(1, 1).nextIds(rows);
+        try (PreparedStatement insert = connection.prepareStatement("insert into artifact values (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, Long.toString(ids[i]));
+                insert.setString(2, "Artifact " + i);
+                insert.setString(3, "Description " + i);
+                insert.setString(4, "ImageUrl" + i);
+                insert.setInt(5, i % 100);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        if ("BIGINT".equals(idType)) {
+            try (InputStream script = ArtifactIdStorageBenchmark.class.getResourceAsStream("/db/migration/artifact-id-bigint.sql");
+                 Statement statement = connection.createStatement()) {
+                String sql = new String(script.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+                for (String migration : sql.split(";")) {
+                    if (!migration.isBlank()) {
+                        statement.execute(migration);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    static long diskSpaceUsed(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select disk_space_used('ARTIFACT')")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // In-memory databases report no disk space, so sizes are measured on a throwaway file database.
+        Path directory = Files.createTempDirectory("artifact-id-size");
+        for (String idType : new String[]{"VARCHAR", "BIGINT"}) {
+            try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve(idType))) {
+                createArtifactTable(connection, idType, 100_000);
+                System.out.printf("%-8s id: %,d bytes for 100,000 artifacts%n", idType, diskSpaceUsed(connection));
+            }
+        }
+        new Runner(new OptionsBuilder()
+                .include(ArtifactIdStorageBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,47 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArtifactOwnerIndexTest {
+
+    @Test
+    void testRemoveOwnersReturnsTheirArtifacts() {
+        ArtifactOwnerIndex ownerIndex = new ArtifactOwnerIndex();
+        ownerIndex.add(1, 11L);
+        ownerIndex.add(1, 12L);
+        ownerIndex.add(2, 21L);
+        ownerIndex.add(null, 99L);
+
+        assertThat(ownerIndex.removeOwners(List.of(1))).containsExactlyInAnyOrder(11L, 12L);
+        assertThat(ownerIndex.removeOwners(List.of(1))).isEmpty();
+        assertThat(ownerIndex.removeOwners(List.of(2))).containsExactly(21L);
+    }
+
+    @Test
+    void testRemoveForgetsAnEvictedArtifact() {
+        ArtifactOwnerIndex ownerIndex = new ArtifactOwnerIndex();
+        ownerIndex.add(1, 11L);
+        ownerIndex.add(1, 12L);
+
+        ownerIndex.remove(1, 11L);
+        ownerIndex.remove(2, 11L);
+        ownerIndex.remove(null, 12L);
+
+        assertThat(ownerIndex.removeOwners(List.of(1))).containsExactly(12L);
+    }
+
+    @Test
+    void testRemovingTheLastArtifactDropsTheOwner() {
+        ArtifactOwnerIndex ownerIndex = new ArtifactOwnerIndex();
+        ownerIndex.add(1, 11L);
+
+        ownerIndex.remove(1, 11L);
+        ownerIndex.add(1, 12L);
+
+        assertThat(ownerIndex.removeOwners(List.of(1))).containsExactly(12L);
+    }
+}
@@ -0,0 +1,127 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tcu.cs.hogwartsartifactsonline.HogwartsArtifactsOnlineApplication;
+import edu.tcu.cs.hogwartsartifactsonline.system.Result;
+import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of answering a cached {@code GET /artifacts/{id}}: serializing the cached DTO into a new {@link Result}
+ * per request, against copying the pre-serialized body out of {@link ArtifactResponseCache}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="ArtifactResponseCacheBenchmark -prof gc"}
+ * to see the allocation per hit next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArtifactResponseCacheBenchmark {
+
+    private static final Long ARTIFACT_ID = 11L;
+
+    private ConfigurableApplicationContext context;
+
+    private ArtifactDtoCache artifactDtoCache;
+
+    private ArtifactResponseCache artifactResponseCache;
+
+    private ObjectMapper objectMapper;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private DiscardingResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The security configuration needs a servlet context, so the application starts on a random port.
+        this.context = new SpringApplicationBuilder(HogwartsArtifactsOnlineApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:response-cache-benchmark",
+                        "logging.level.root=WARN")
+                .run();
+        this.artifactDtoCache = this.context.getBean(ArtifactDtoCache.class);
+        this.artifactResponseCache = this.context.getBean(ArtifactResponseCache.class);
+        this.objectMapper = this.context.getBean(ObjectMapper.class);
+        this.response = new DiscardingResponse();
+        serializeDto();
+        writeCachedBody();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public HttpServletResponse serializeDto() throws IOException {
+        this.response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        this.objectMapper.writeValue(this.response.getOutputStream(),
+                new Result(true, StatusCode.SUCCESS, "Find One Success", this.artifactDtoCache.get(ARTIFACT_ID)));
+        return this.response;
+    }
+
+    @Benchmark
+    public HttpServletResponse writeCachedBody() throws IOException {
+        this.artifactResponseCache.write(ARTIFACT_ID, this.request, this.response);
+        return this.response;
+    }
+
+    /**
+     * Drops headers and body, so that neither benchmark pays for the mock response's own buffering.
+     */
+    private static class DiscardingResponse extends HttpServletResponseWrapper {
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        DiscardingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return this.outputStream;
+        }
+
+        @Override
+        public void setContentType(String type) {
+        }
+
+        @Override
+        public void setContentLength(int len) {
+        }
+    }
+}
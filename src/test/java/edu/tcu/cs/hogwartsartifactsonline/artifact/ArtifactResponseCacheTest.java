@@ -0,0 +1,162 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.ArtifactIdCodec;
+import edu.tcu.cs.hogwartsartifactsonline.catalog.CatalogReplica;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardChangedEvent;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardDtoCache;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardService;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardToWizardDtoConverter;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtifactResponseCacheTest {
+
+    @Mock
+    ArtifactService artifactService;
+
+    @Mock
+    WizardService wizardService;
+
+    @Mock
+    CatalogReplica catalogReplica;
+
+    WizardDtoCache wizardDtoCache;
+
+    ArtifactDtoCache artifactDtoCache;
+
+    ArtifactResponseCache artifactResponseCache;
+
+    Wizard wizard;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ArtifactDtoCache.CACHE_NAME, WizardDtoCache.CACHE_NAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100));
+        WizardToWizardDtoConverter wizardToWizardDtoConverter = new WizardToWizardDtoConverter();
+        this.wizardDtoCache = new WizardDtoCache(cacheManager, this.wizardService, wizardToWizardDtoConverter, this.catalogReplica);
+        this.artifactDtoCache = new ArtifactDtoCache(cacheManager, "maximumSize=100", this.artifactService,
+                new ArtifactToArtifactDtoConverter(wizardToWizardDtoConverter, new ArtifactIdCodec(ArtifactIdCodec.Format.DECIMAL)), this.wizardDtoCache, this.catalogReplica);
+        this.artifactResponseCache = new ArtifactResponseCache(this.artifactDtoCache, new ObjectMapper(), DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+
+        this.wizard = new Wizard();
+        this.wizard.setId(1);
+        this.wizard.setName("Albus");
+        Artifact artifact = new Artifact();
+        artifact.setId(11L);
+        artifact.setName("Wand");
+        artifact.setDescription("Wand desc");
+        this.wizard.addArtifact(artifact);
+        lenient().when(this.artifactService.findById(11L)).thenReturn(artifact);
+        lenient().when(this.wizardService.findById(1)).thenReturn(this.wizard);
+    }
+
+    @Test
+    void testWriteSerializesOnce() throws Exception {
+        MockHttpServletResponse first = write(11L);
+        MockHttpServletResponse second = write(11L);
+
+        JSONObject json = new JSONObject(first.getContentAsString());
+        assertThat(json.getBoolean("flag")).isTrue();
+        assertThat(json.getString("message")).isEqualTo("Find One Success");
+        assertThat(json.getJSONObject("data").getString("name")).isEqualTo("Wand");
+        assertThat(json.getJSONObject("data").getJSONObject("owner").getString("name")).isEqualTo("Albus");
+        assertThat(first.getContentType()).isEqualTo("application/json");
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(second.getContentLength()).isEqualTo(first.getContentAsByteArray().length);
+        verify(this.artifactService, times(1)).findById(11L);
+    }
+
+    @Test
+    void testWriteBodyLargerThanOneChunk() throws Exception {
+        Artifact artifact = new Artifact();
+        artifact.setId(12L);
+        artifact.setName("Scroll");
+        artifact.setDescription("x".repeat(20000));
+        given(this.artifactService.findById(12L)).willReturn(artifact);
+
+        MockHttpServletResponse response = write(12L);
+
+        assertThat(new JSONObject(response.getContentAsString()).getJSONObject("data").getString("description")).hasSize(20000);
+    }
+
+    @Test
+    void testArtifactChangeEvictsEntry() throws Exception {
+        write(11L);
+
+        this.artifactDtoCache.onArtifactChanged(ArtifactChangedEvent.ofArtifacts(List.of(11L)));
+        this.artifactResponseCache.onArtifactChanged(ArtifactChangedEvent.ofArtifacts(List.of(11L)));
+        write(11L);
+
+        verify(this.artifactService, times(2)).findById(11L);
+    }
+
+    @Test
+    void testOwnerChangeEvictsOnlyThatOwnersEntries() throws Exception {
+        Wizard renamed = new Wizard();
+        renamed.setId(1);
+        renamed.setName("Dumbledore");
+        given(this.wizardService.findById(1)).willReturn(this.wizard, renamed);
+        write(11L);
+
+        this.artifactResponseCache.onWizardChanged(new WizardChangedEvent(List.of(2)));
+        assertThat(write(11L).getContentAsString()).contains("Albus");
+
+        this.wizardDtoCache.onWizardChanged(new WizardChangedEvent(List.of(1)));
+        this.artifactResponseCache.onWizardChanged(new WizardChangedEvent(List.of(1)));
+        assertThat(write(11L).getContentAsString()).contains("Dumbledore");
+        verify(this.artifactService, times(1)).findById(11L);
+    }
+
+    @Test
+    void testEntryReloadedAfterOwnerChangeIsEvictedByTheNextOne() throws Exception {
+        write(11L);
+
+        this.artifactResponseCache.onWizardChanged(new WizardChangedEvent(List.of(1)));
+        String rebuilt = write(11L).getContentAsString();
+        this.artifactDtoCache.onArtifactChanged(ArtifactChangedEvent.ofOwner(1));
+        this.artifactResponseCache.onArtifactChanged(ArtifactChangedEvent.ofOwner(1));
+        write(11L);
+
+        // The rebuilt entry came from the cached DTO; only the owner-wide change made both caches load again.
+        assertThat(rebuilt).contains("Wand");
+        verify(this.artifactService, times(2)).findById(11L);
+    }
+
+    @Test
+    void testNotFoundIsNotCached() {
+        given(this.artifactService.findById(99L)).willThrow(new ObjectNotFoundException("artifact", 99L));
+
+        assertThrows(ObjectNotFoundException.class, () -> write(99L));
+        assertThrows(ObjectNotFoundException.class, () -> write(99L));
+
+        verify(this.artifactService, times(2)).findById(99L);
+    }
+
+    private MockHttpServletResponse write(Long artifactId) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.artifactResponseCache.write(artifactId, new MockHttpServletRequest(), response);
+        return response;
+    }
+}
@@ -1,16 +1,25 @@
 package edu.tcu.cs.hogwartsartifactsonline.artifact;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorCodec;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.InvalidCursorException;
 import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.PreconditionFailedException;
 import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,24 +37,31 @@ class ArtifactServiceTest {
     @Mock
     ArtifactRepository artifactRepository;
 
+    @Mock
+    WizardRepository wizardRepository;
+
     @Mock
     IdWorker idWorker;
 
-    @InjectMocks
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     ArtifactService artifactService;
 
     List<Artifact> artifacts;
 
     @BeforeEach
     void setUp() {
+        this.artifactService = new ArtifactService(this.artifactRepository, this.wizardRepository, this.idWorker, this.eventPublisher, false);
+
         Artifact artifact1 = new Artifact();
-        artifact1.setId("1");
+        artifact1.setId(1L);
         artifact1.setName("Wand");
         artifact1.setDescription("Wand desc");
         artifact1.setImageUrl("ImageUrl1");
 
         Artifact artifact2 = new Artifact();
-        artifact2.setId("2");
+        artifact2.setId(2L);
         artifact2.setName("Cloak");
         artifact2.setDescription("Cloak desc");
         artifact2.setImageUrl("ImageUrl2");
@@ -62,7 +78,7 @@ class ArtifactServiceTest {
     @Test
     void testFindByIdSuccess() {
         Artifact artifact = new Artifact();
-        artifact.setId("1250");
+        artifact.setId(1250L);
         artifact.setName("Cloak");
         artifact.setDescription("Cloak description");
         artifact.setImageUrl("imageUrl");
@@ -73,39 +89,87 @@ class ArtifactServiceTest {
 
         artifact.setOwner(wizard);
 
-        given(artifactRepository.findById("1250")).willReturn(Optional.of(artifact));
+        given(artifactRepository.findById(1250L)).willReturn(Optional.of(artifact));
 
-        Artifact returnedArtifact = artifactService.findById("1250");
+        Artifact returnedArtifact = artifactService.findById(1250L);
 
         assertThat(returnedArtifact.getId()).isEqualTo(artifact.getId());
         assertThat(returnedArtifact.getName()).isEqualTo(artifact.getName());
         assertThat(returnedArtifact.getDescription()).isEqualTo(artifact.getDescription());
         assertThat(returnedArtifact.getImageUrl()).isEqualTo(artifact.getImageUrl());
-        verify(artifactRepository, times(1)).findById("1250");
+        verify(artifactRepository, times(1)).findById(1250L);
     }
 
     @Test
     void testFindByIdNotFound() {
-        given(artifactRepository.findById(Mockito.any(String.class))).willReturn(Optional.empty());
+        given(artifactRepository.findById(Mockito.any(Long.class))).willReturn(Optional.empty());
 
         Throwable thrown = catchThrowable(() -> {
-            Artifact returnedArtifact = artifactService.findById("1250");
+            Artifact returnedArtifact = artifactService.findById(1250L);
         });
 
         assertThat(thrown)
                 .isInstanceOf(ObjectNotFoundException.class)
                 .hasMessage("Could not find artifact with Id 1250");
-        verify(artifactRepository, times(1)).findById("1250");
+        verify(artifactRepository, times(1)).findById(1250L);
     }
 
     @Test
     void testFindAllSuccess() {
-        given(artifactRepository.findAll()).willReturn(this.artifacts);
+        given(artifactRepository.findAllWithOwner()).willReturn(this.artifacts);
 
         List<Artifact> actualArtifacts = artifactService.findAll();
 
         assertThat(actualArtifacts.size()).isEqualTo(this.artifacts.size());
-        verify(artifactRepository, times(1)).findAll();
+        verify(artifactRepository, times(1)).findAllWithOwner();
+    }
+
+    @Test
+    void testFindPageWithNextPage() {
+        given(artifactRepository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, PageRequest.of(0, 2))).willReturn(this.artifacts);
+
+        CursorPage<Artifact> page = artifactService.findPage(null, 1);
+
+        assertThat(page.content()).hasSize(1);
+        assertThat(page.content().get(0).getId()).isEqualTo(1L);
+        assertThat(page.next()).isEqualTo(CursorCodec.encode("1"));
+    }
+
+    @Test
+    void testFindPageLastPage() {
+        given(artifactRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 3))).willReturn(this.artifacts.subList(1, 2));
+
+        CursorPage<Artifact> page = artifactService.findPage(CursorCodec.encode("1"), 2);
+
+        assertThat(page.content()).hasSize(1);
+        assertThat(page.content().get(0).getId()).isEqualTo(2L);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void testFindPageClampsPageSize() {
+        given(artifactRepository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, PageRequest.of(0, ArtifactService.MAX_PAGE_SIZE + 1))).willReturn(this.artifacts);
+
+        CursorPage<Artifact> page = artifactService.findPage("", 100000);
+
+        assertThat(page.content()).hasSize(2);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void testFindPageInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> artifactService.findPage("not a cursor", 10));
+    }
+
+    @Test
+    void testFindAllByOwnerWithoutOwnerListsUnassigned() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        given(artifactRepository.findByOwnerIsNull(pageable)).willReturn(new PageImpl<>(this.artifacts, pageable, 2));
+
+        Page<Artifact> page = artifactService.findAllByOwner(null, pageable);
+
+        assertThat(page.getContent()).hasSize(2);
+        verify(artifactRepository, never()).findByOwnerId(any(), any());
     }
 
     @Test
@@ -120,7 +184,7 @@ class ArtifactServiceTest {
 
         Artifact savedArtifact = artifactService.save(newArtifact);
 
-        assertThat(savedArtifact.getId()).isEqualTo("123456");
+        assertThat(savedArtifact.getId()).isEqualTo(123456L);
         assertThat(savedArtifact.getName()).isEqualTo(newArtifact.getName());
         assertThat(savedArtifact.getDescription()).isEqualTo(newArtifact.getDescription());
         assertThat(savedArtifact.getImageUrl()).isEqualTo(newArtifact.getImageUrl());
@@ -130,7 +194,7 @@ class ArtifactServiceTest {
     @Test
     void testUpdateSuccess() {
         Artifact oldArtifact = new Artifact();
-        oldArtifact.setId("1250");
+        oldArtifact.setId(1250L);
         oldArtifact.setName("Cloak");
         oldArtifact.setDescription("Cloak description");
         oldArtifact.setImageUrl("imageUrl");
@@ -141,15 +205,16 @@ class ArtifactServiceTest {
         update.setDescription("Update");
         update.setImageUrl("imageUrl");
 
-        given(artifactRepository.findById("1250")).willReturn(Optional.of(oldArtifact));
+        given(artifactRepository.findById(1250L)).willReturn(Optional.of(oldArtifact));
         given(artifactRepository.save(oldArtifact)).willReturn(oldArtifact);
 
-        Artifact updatedArtifact = this.artifactService.update("1250", update);
+        Artifact updatedArtifact = this.artifactService.update(1250L, update, null);
 
-        assertThat(updatedArtifact.getId()).isEqualTo("1250");
+        assertThat(updatedArtifact.getId()).isEqualTo(1250L);
         assertThat(updatedArtifact.getDescription()).isEqualTo(update.getDescription());
-        verify(artifactRepository, times(1)).findById("1250");
+        verify(artifactRepository, times(1)).findById(1250L);
         verify(artifactRepository, times(1)).save(oldArtifact);
+        verify(eventPublisher, times(1)).publishEvent(ArtifactChangedEvent.ofArtifacts(List.of(1250L)));
     }
 
     @Test
@@ -159,36 +224,136 @@ class ArtifactServiceTest {
         update.setDescription("Update");
         update.setImageUrl("imageUrl");
 
-        given(artifactRepository.findById("1250")).willReturn(Optional.empty());
+        given(artifactRepository.findById(1250L)).willReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () -> {
-            this.artifactService.update("1250", update);
+            this.artifactService.update(1250L, update, null);
         });
-        verify(artifactRepository, times(1)).findById("1250");
+        verify(artifactRepository, times(1)).findById(1250L);
+    }
+
+    @Test
+    void testUpdateStaleVersion() {
+        Artifact oldArtifact = new Artifact();
+        oldArtifact.setId(1250L);
+        oldArtifact.setName("Cloak");
+        oldArtifact.setVersion(3);
+
+        Artifact update = new Artifact();
+        update.setName("Cloak");
+        update.setDescription("Update");
+        update.setImageUrl("imageUrl");
+
+        given(artifactRepository.findById(1250L)).willReturn(Optional.of(oldArtifact));
+
+        Throwable thrown = catchThrowable(() -> this.artifactService.update(1250L, update, 2));
+
+        assertThat(thrown)
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage("The artifact with Id 1250 has changed since it was read");
+        verify(artifactRepository, never()).save(any(Artifact.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void testDeleteSuccess() {
         Artifact artifact = new Artifact();
-        artifact.setId("1985");
+        artifact.setId(1985L);
+        artifact.setName("Cloak");
+        artifact.setDescription("Update");
+        artifact.setImageUrl("imageUrl");
+
+        given(artifactRepository.findById(1985L)).willReturn(Optional.of(artifact));
+        doNothing().when(artifactRepository).delete(artifact);
+
+        artifactService.delete(1985L);
+        verify(artifactRepository, times(1)).delete(artifact);
+    }
+
+    @Test
+    void testDeleteDecrementsOwnerArtifactCount() {
+        Artifact artifact = new Artifact();
+        artifact.setId(1985L);
         artifact.setName("Cloak");
         artifact.setDescription("Update");
         artifact.setImageUrl("imageUrl");
 
-        given(artifactRepository.findById("1985")).willReturn(Optional.of(artifact));
-        doNothing().when(artifactRepository).deleteById("1985");
+        Wizard wizard = new Wizard();
+        wizard.setId(2);
+        wizard.setName("Harry Potter");
+        wizard.addArtifact(artifact);
+
+        given(artifactRepository.findById(1985L)).willReturn(Optional.of(artifact));
+        doNothing().when(artifactRepository).delete(artifact);
 
-        artifactService.delete("1985");
-        verify(artifactRepository, times(1)).deleteById("1985");
+        artifactService.delete(1985L);
+
+        assertThat(wizard.getNumberOfArtifacts()).isZero();
+        assertThat(artifact.getOwner()).isNull();
+        verify(artifactRepository, times(1)).delete(artifact);
     }
 
     @Test
     void testDeleteNotFound() {
 
-        given(artifactRepository.findById("1985")).willReturn(Optional.empty());
+        given(artifactRepository.findById(1985L)).willReturn(Optional.empty());
+
+        assertThrows(ObjectNotFoundException.class, () -> this.artifactService.delete(1985L));
+
+        verify(artifactRepository, times(1)).findById(1985L);
+    }
+
+    @Test
+    void testDeleteAllReleasesOwnersBeforeDeleting() {
+        List<Long> artifactIds = List.of(1L, 2L);
+        given(artifactRepository.deleteByIdIn(artifactIds)).willReturn(2);
+
+        int deleted = artifactService.deleteAll(artifactIds);
+
+        assertThat(deleted).isEqualTo(2);
+        InOrder inOrder = inOrder(wizardRepository, artifactRepository);
+        inOrder.verify(wizardRepository).releaseArtifacts(artifactIds);
+        inOrder.verify(artifactRepository).deleteByIdIn(artifactIds);
+    }
+
+    @Test
+    void testDeleteAllByOwner() {
+        given(artifactRepository.deleteByOwnerId(2)).willReturn(3);
+
+        int deleted = artifactService.deleteAllByOwner(2);
+
+        assertThat(deleted).isEqualTo(3);
+        verify(wizardRepository, times(1)).releaseAllArtifacts(2);
+    }
+
+    @Test
+    void testPatchAllPassesOnlyGivenFields() {
+        Artifact changes = new Artifact();
+        changes.setDescription("Retired");
+        given(artifactRepository.patchByIdIn(List.of(1L, 2L), null, "Retired", null)).willReturn(2);
+
+        int updated = artifactService.patchAll(List.of(1L, 2L), changes);
+
+        assertThat(updated).isEqualTo(2);
+        verify(artifactRepository, never()).findById(any());
+    }
+
+    @Test
+    void testDeleteWithLargeOwnershipUsesStatements() {
+        this.artifactService = new ArtifactService(this.artifactRepository, this.wizardRepository, this.idWorker, this.eventPublisher, true);
+        given(artifactRepository.deleteByIdIn(List.of(1985L))).willReturn(1);
+
+        artifactService.delete(1985L);
 
-        assertThrows(ObjectNotFoundException.class, () -> this.artifactService.delete("1985"));
+        verify(wizardRepository, times(1)).releaseArtifacts(List.of(1985L));
+        verify(artifactRepository, never()).findById(any());
+    }
+
+    @Test
+    void testDeleteWithLargeOwnershipNotFound() {
+        this.artifactService = new ArtifactService(this.artifactRepository, this.wizardRepository, this.idWorker, this.eventPublisher, true);
+        given(artifactRepository.deleteByIdIn(List.of(1985L))).willReturn(0);
 
-        verify(artifactRepository, times(1)).findById("1985");
+        assertThrows(ObjectNotFoundException.class, () -> this.artifactService.delete(1985L));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
+
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArtifactIdCodecTest {
+
+    ArtifactIdCodec decimal = new ArtifactIdCodec(ArtifactIdCodec.Format.DECIMAL);
+
+    ArtifactIdCodec base62 = new ArtifactIdCodec(ArtifactIdCodec.Format.BASE62);
+
+    @Test
+    void testDecimalRoundTrip() {
+        assertThat(this.decimal.encode(1250808601744904191L)).isEqualTo("1250808601744904191");
+        assertThat(this.decimal.decode("1250808601744904191")).isEqualTo(1250808601744904191L);
+    }
+
+    @Test
+    void testBase62RoundTrip() {
+        long id = new IdWorker(1, 1).nextId();
+
+        String encoded = this.base62.encode(id);
+
+        assertThat(encoded).hasSizeLessThanOrEqualTo(11).matches("[0-9A-Za-z]+");
+        assertThat(this.base62.decode(encoded)).isEqualTo(id);
+        assertThat(this.base62.encode(0L)).isEqualTo("0");
+        assertThat(this.base62.encode(61L)).isEqualTo("z");
+        assertThat(this.base62.decode(this.base62.encode(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void testUndecodableIdIsNotFound() {
+        assertThatThrownBy(() -> this.decimal.decode("abc"))
+                .isInstanceOf(ObjectNotFoundException.class)
+                .hasMessage("Could not find artifact with Id abc");
+        assertThatThrownBy(() -> this.base62.decode("ab-c"))
+                .isInstanceOf(ObjectNotFoundException.class);
+        assertThatThrownBy(() -> this.base62.decode("zzzzzzzzzzz"))
+                .isInstanceOf(ObjectNotFoundException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lock-free {@link IdWorker} with the original synchronized implementation.
+ * <p>
+ * Run the 1 to 64 thread sweep with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.main=edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorkerBenchmark},
+ * or a single configuration with {@code -Djmh.args="IdWorkerBenchmark -t 16"}.
+ * Both generators are capped at 4096 ids per millisecond by the sequence width, so the interesting numbers
+ * are how close each one gets to that cap as threads are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdWorkerBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    private IdWorker idWorker;
+
+    private SynchronizedIdWorker synchronizedIdWorker;
+
+    @Setup
+    public void setUp() {
+        this.idWorker = new IdWorker(1, 1);
+        this.synchronizedIdWorker = new SynchronizedIdWorker(1, 1);
+    }
+
+    @Benchmark
+    public long synchronizedNextId() {
+        return this.synchronizedIdWorker.nextId();
+    }
+
+    @Benchmark
+    public long lockFreeNextId() {
+        return this.idWorker.nextId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] lockFreeNextIds() {
+        return this.idWorker.nextIds(BATCH_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        List<String> summary = new ArrayList<>();
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+            Collection<RunResult> results = new Runner(new OptionsBuilder()
+                    .include(IdWorkerBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+            for (RunResult result : results) {
+                summary.add(String.format("%-20s %3d threads %12.1f ids/ms",
+                        result.getParams().getBenchmark().replaceFirst(".*\\.", ""),
+                        threads,
+                        result.getPrimaryResult().getScore()));
+            }
+        }
+        summary.forEach(System.out::println);
+    }
+}
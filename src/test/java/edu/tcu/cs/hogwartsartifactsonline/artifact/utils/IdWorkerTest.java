@@ -0,0 +1,210 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdWorkerTest {
+
+    @Test
+    void testNextIdIsIncreasing() {
+        IdWorker idWorker = new IdWorker(1, 1);
+
+        long previous = idWorker.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long next = idWorker.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testNextIdIsUniqueAcrossThreads() throws Exception {
+        IdWorker idWorker = new IdWorker(1, 1);
+        int threads = 8;
+        int idsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[idsPerThread];
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids[i] = idWorker.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> allIds = ConcurrentHashMap.newKeySet();
+            for (Future<long[]> future : futures) {
+                for (long id : future.get()) {
+                    allIds.add(id);
+                }
+            }
+            assertThat(allIds).hasSize(threads * idsPerThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNextIdsReservesDistinctIds() {
+        IdWorker idWorker = new IdWorker(3, 4);
+
+        long before = idWorker.nextId();
+        long[] ids = idWorker.nextIds(10_000);
+        long after = idWorker.nextId();
+
+        assertThat(ids).hasSize(10_000);
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids).isSorted();
+        assertThat(ids[0]).isGreaterThan(before);
+        assertThat(after).isGreaterThan(ids[ids.length - 1]);
+    }
+
+    @Test
+    void testNextIdsWithinOneMillisecondAreConsecutive() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L);
+
+        long[] ids = idWorker.nextIds(100);
+
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isEqualTo(ids[0] + i);
+        }
+    }
+
+    @Test
+    void testNextIdsRejectsNonPositiveCount() {
+        IdWorker idWorker = new IdWorker(1, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> idWorker.nextIds(0));
+    }
+
+    @Test
+    void testClockMovedBackwards() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L);
+        idWorker.nextId();
+
+        idWorker.clock.set(1_599_999_999_000L);
+
+        Throwable thrown = assertThrows(RuntimeException.class, idWorker::nextId);
+        assertThat(thrown).hasMessage("Clock moved backwards.  Refusing to generate id for 1000 milliseconds");
+    }
+
+    @Test
+    void testHybridClockToleratesClockMovingBackwards() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L, true);
+        long before = idWorker.nextId();
+
+        idWorker.clock.set(1_599_999_999_000L);
+        long after = idWorker.nextId();
+
+        assertThat(after).isEqualTo(before + 1);
+    }
+
+    @Test
+    void testHybridClockMovesToNextLogicalMillisecondWhenSequenceIsUsedUp() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L, true);
+
+        long[] ids = idWorker.nextIds(4096);
+        long next = idWorker.nextId();
+
+        assertThat(ids[4095] - ids[0]).isEqualTo(4095);
+        assertThat(next >>> 22).isEqualTo((ids[0] >>> 22) + 1);
+        assertThat(next).isGreaterThan(ids[4095]);
+    }
+
+    @Test
+    void testExpiredLeaseRefusesIds() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L);
+        idWorker.lease(1, 1, 0, 1_600_000_001_000L, 1_600_000_060_000L);
+        idWorker.nextId();
+
+        idWorker.clock.set(1_600_000_001_000L);
+
+        assertThrows(IllegalStateException.class, idWorker::nextId);
+        idWorker.renewLease(1_600_000_002_000L, 1_600_000_060_000L);
+        assertThat(idWorker.nextId()).isPositive();
+    }
+
+    @Test
+    void testFencedWorkerRefusesIds() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L);
+
+        idWorker.fence();
+
+        assertThrows(IllegalStateException.class, idWorker::nextId);
+        assertThrows(IllegalStateException.class, () -> idWorker.nextIds(10));
+    }
+
+    @Test
+    void testHybridClockStopsAtHighWater() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L, true);
+        idWorker.lease(1, 1, 0, 1_600_000_001_000L, 1_600_000_000_000L);
+
+        idWorker.nextIds(4096);
+
+        assertThrows(IllegalStateException.class, idWorker::nextId);
+    }
+
+    @Test
+    void testNewLeaseContinuesAbovePreviousHoldersHighWater() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L, true);
+        long before = idWorker.nextId();
+
+        idWorker.lease(2, 3, 1_600_000_005_000L, 1_600_000_060_000L, 1_600_000_070_000L);
+        long after = idWorker.nextId();
+
+        assertThat((after >>> 22) - (before >>> 22)).isEqualTo(5001);
+        assertThat((after >>> 12) & 0x3FF).isEqualTo((3 << 5) | 2);
+        assertThat(idWorker.lastTimestamp()).isEqualTo(1_600_000_005_001L);
+    }
+
+    @Test
+    void testWallClockWaitsForPreviousHoldersHighWater() {
+        FixedClockIdWorker idWorker = new FixedClockIdWorker(1_600_000_000_000L) {
+            @Override
+            protected long timeGen() {
+                return this.clock.getAndIncrement();
+            }
+        };
+        long before = idWorker.nextId();
+
+        idWorker.lease(2, 3, 1_600_000_000_005L, 1_600_000_060_000L, 1_600_000_070_000L);
+        long after = idWorker.nextId();
+
+        assertThat((after >>> 22) - (before >>> 22)).isGreaterThan(5);
+    }
+
+    @Test
+    void testInvalidWorkerId() {
+        assertThrows(IllegalArgumentException.class, () -> new IdWorker(32, 1));
+        assertThrows(IllegalArgumentException.class, () -> new IdWorker(1, -1));
+    }
+
+    static class FixedClockIdWorker extends IdWorker {
+
+        final AtomicLong clock;
+
+        FixedClockIdWorker(long millis) {
+            this(millis, false);
+        }
+
+        FixedClockIdWorker(long millis, boolean hybridClock) {
+            super(1, 1, hybridClock);
+            this.clock = new AtomicLong(millis);
+        }
+
+        @Override
+        protected long timeGen() {
+            return this.clock.get();
+        }
+    }
+}
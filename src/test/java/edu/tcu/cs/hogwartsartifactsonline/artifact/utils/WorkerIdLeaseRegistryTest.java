@@ -0,0 +1,146 @@
+package edu.tcu.cs.hogwartsartifactsonline.artifact.utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Tag("integration")
+class WorkerIdLeaseRegistryTest {
+
+    // IdWorker's epoch, to read the timestamp back out of an id.
+    private static final long TWEPOCH = 1288834974657L;
+
+    @Autowired
+    WorkerIdLeaseRegistry applicationRegistry;
+
+    @Autowired
+    WorkerIdLeaseRepository workerIdLeaseRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testNodesLeaseDistinctSlots() {
+        WorkerIdLeaseRegistry otherNode = newRegistry(Duration.ofMinutes(1));
+
+        int applicationSlot = this.applicationRegistry.acquire();
+        int otherSlot = otherNode.acquire();
+
+        assertThat(otherSlot).isNotEqualTo(applicationSlot);
+        assertThat(otherNode.acquire()).isEqualTo(otherSlot);
+        otherNode.release();
+    }
+
+    @Test
+    void testReleasedSlotIsReclaimed() {
+        WorkerIdLeaseRegistry firstNode = newRegistry(Duration.ofMinutes(1));
+        int slot = firstNode.acquire();
+        firstNode.release();
+
+        WorkerIdLeaseRegistry secondNode = newRegistry(Duration.ofMinutes(1));
+
+        assertThat(secondNode.acquire()).isEqualTo(slot);
+        secondNode.release();
+    }
+
+    @Test
+    void testHeartbeatExtendsLease() {
+        WorkerIdLeaseRegistry node = newRegistry(Duration.ofMinutes(1));
+        int slot = node.acquire();
+        var before = this.workerIdLeaseRepository.findById(slot).get().getExpiresAt();
+
+        node.heartbeat();
+
+        assertThat(this.workerIdLeaseRepository.findById(slot).get().getExpiresAt()).isAfterOrEqualTo(before);
+        node.release();
+    }
+
+    @Test
+    void testExpiredLeaseFencesIdWorkerUntilRenewed() throws Exception {
+        WorkerIdLeaseRegistry node = newRegistry(Duration.ofMillis(200));
+        IdWorker idWorker = node.newIdWorker(true);
+        idWorker.nextId();
+
+        Thread.sleep(300);
+
+        assertThrows(IllegalStateException.class, idWorker::nextId);
+        node.heartbeat();
+        assertThat(idWorker.nextId()).isPositive();
+        node.release();
+    }
+
+    @Test
+    void testTakenOverSlotMovesIdWorkerToAnotherSlot() {
+        WorkerIdLeaseRegistry node = newRegistry(Duration.ofMinutes(1));
+        IdWorker idWorker = node.newIdWorker(true);
+        int slot = node.acquire();
+        this.jdbcTemplate.update("update worker_id_lease set holder = 'other node' where id = ?", slot);
+
+        node.heartbeat();
+
+        int newSlot = node.acquire();
+        assertThat(newSlot).isNotEqualTo(slot);
+        assertThat((idWorker.nextId() >>> 12) & 0x3FF).isEqualTo(newSlot);
+        node.release();
+        // Its mark is a ttl ahead, which would hold up a later test's node without a hybrid clock.
+        this.jdbcTemplate.update("delete from worker_id_lease where id = ?", slot);
+    }
+
+    @Test
+    void testReclaimedSlotStartsAbovePreviousHoldersHighWater() {
+        WorkerIdLeaseRegistry firstNode = newRegistry(Duration.ofMinutes(1));
+        firstNode.newIdWorker(true);
+        int slot = firstNode.acquire();
+        // As if the first node had stopped without releasing, its hybrid clock an hour ahead of wall time.
+        Instant highWater = Instant.now().plus(Duration.ofHours(1));
+        this.jdbcTemplate.update("update worker_id_lease set high_water = ?, expires_at = ? where id = ?",
+                Timestamp.from(highWater), Timestamp.from(Instant.EPOCH), slot);
+
+        WorkerIdLeaseRegistry secondNode = newRegistry(Duration.ofMinutes(1));
+        IdWorker secondIdWorker = secondNode.newIdWorker(true);
+
+        assertThat(secondNode.acquire()).isEqualTo(slot);
+        assertThat(secondIdWorker.lastTimestamp()).isGreaterThanOrEqualTo(highWater.toEpochMilli());
+        assertThat(secondIdWorker.nextId() >>> 22).isGreaterThan(highWater.toEpochMilli() - TWEPOCH);
+        secondNode.release();
+        this.jdbcTemplate.update("delete from worker_id_lease where id = ?", slot);
+    }
+
+    @Test
+    void testReleaseRecordsTheIdsActuallyIssued() {
+        WorkerIdLeaseRegistry firstNode = newRegistry(Duration.ofMinutes(1));
+        IdWorker firstIdWorker = firstNode.newIdWorker(false);
+        int slot = firstNode.acquire();
+        long lastId = firstIdWorker.nextId();
+        firstNode.release();
+
+        assertThrows(IllegalStateException.class, firstIdWorker::nextId);
+        Instant highWater = this.workerIdLeaseRepository.findHighWater(slot);
+        assertThat(highWater).isBefore(Instant.now().plusSeconds(1));
+
+        // Without a hybrid clock, the next holder issues ids right away rather than waiting out a ttl.
+        WorkerIdLeaseRegistry secondNode = newRegistry(Duration.ofMinutes(1));
+        IdWorker secondIdWorker = secondNode.newIdWorker(false);
+        assertThat(secondNode.acquire()).isEqualTo(slot);
+        assertThat(secondIdWorker.nextId() >>> 22).isGreaterThan(lastId >>> 22);
+        secondNode.release();
+    }
+
+    private WorkerIdLeaseRegistry newRegistry(Duration ttl) {
+        return new WorkerIdLeaseRegistry(this.workerIdLeaseRepository, this.transactionManager, ttl);
+    }
+}
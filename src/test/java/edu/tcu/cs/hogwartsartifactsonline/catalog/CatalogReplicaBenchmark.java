@@ -0,0 +1,89 @@
+package edu.tcu.cs.hogwartsartifactsonline.catalog;
+
+import edu.tcu.cs.hogwartsartifactsonline.HogwartsArtifactsOnlineApplication;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of reading a wizard's artifacts, as {@code GET /wizards/{id}/artifacts} does, from the catalog replica
+ * against the database, while another thread keeps renaming that wizard. Every rename is committed and applied to
+ * the replica, so the database reads also contend with the replica's own reloads.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="CatalogReplicaBenchmark"} and compare the
+ * {@code p0.99} rows of the {@code readWizardArtifacts} lines.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogReplicaBenchmark {
+
+    private static final Integer WIZARD_ID = 1;
+
+    private static final Pageable PAGEABLE = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Param({"replica", "database"})
+    public String source;
+
+    private ConfigurableApplicationContext context;
+
+    private CatalogReplica catalogReplica;
+
+    private WizardService wizardService;
+
+    private ArtifactToArtifactDtoConverter artifactToArtifactDtoConverter;
+
+    private final Wizard update = new Wizard();
+
+    private int renames;
+
+    @Setup
+    public void setUp() {
+        // The security configuration needs a servlet context, so the application starts on a random port.
+        // Passed as arguments, since properties set on the builder lose to application.yml.
+        this.context = new SpringApplicationBuilder(HogwartsArtifactsOnlineApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:catalog-replica-benchmark",
+                        "--catalog.replica.enabled=true",
+                        "--logging.level.root=WARN");
+        this.catalogReplica = this.context.getBean(CatalogReplica.class);
+        this.wizardService = this.context.getBean(WizardService.class);
+        this.artifactToArtifactDtoConverter = this.context.getBean(ArtifactToArtifactDtoConverter.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    @Group("readWhileRenaming")
+    public Page<ArtifactDto> readWizardArtifacts() {
+        if (this.source.equals("replica")) {
+            CatalogSnapshot snapshot = this.catalogReplica.current();
+            snapshot.wizard(WIZARD_ID);
+            return snapshot.artifactsOwnedBy(WIZARD_ID, PAGEABLE);
+        }
+        return this.wizardService.findArtifacts(WIZARD_ID, PAGEABLE).map(this.artifactToArtifactDtoConverter::convert);
+    }
+
+    @Benchmark
+    @Group("readWhileRenaming")
+    public Wizard renameWizard() {
+        this.update.setName("Albus " + (this.renames++ % 2));
+        return this.wizardService.update(WIZARD_ID, this.update, null);
+    }
+}
@@ -0,0 +1,125 @@
+package edu.tcu.cs.hogwartsartifactsonline.catalog;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@SpringBootTest(properties = {"catalog.replica.enabled=true", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+@DisplayName("Integration tests for the catalog replica")
+@Tag("integration")
+public class CatalogReplicaIntegrationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CatalogReplica catalogReplica;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    String token;
+
+    @Value("${api.endpoint.base-url}")
+    String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MvcResult mvcResult = this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("john", "123456"))).andReturn();
+        JSONObject json = new JSONObject(mvcResult.getResponse().getContentAsString());
+        this.token = "Bearer " + json.getJSONObject("data").getString("token");
+    }
+
+    @Test
+    @DisplayName("Check reads are answered without a statement")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testReadsDoNotQueryTheDatabase() throws Exception {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.name").value("Wand"))
+                .andExpect(jsonPath("$.data.owner.name").value("Albus"));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(6)));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").param("ownerId", "null").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content[*].id").value(Matchers.contains("66")));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(3)));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(2));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1/artifacts").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content[*].id").value(Matchers.contains("11", "33")))
+                .andExpect(jsonPath("$.data.totalElements").value(2));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/9/artifacts").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.message").value("Could not find wizard with Id 9"));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Check writes reach the replica")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testWritesReachTheReplica() throws Exception {
+        long version = this.catalogReplica.current().version();
+
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/1").contentType(MediaType.APPLICATION_JSON).header("Authorization", this.token)
+                        .content("{\"name\": \"Dumbledore\"}").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/3/artifacts/66").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+        this.mockMvc.perform(delete(this.baseUrl + "/wizards/2").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+
+        assertThat(this.catalogReplica.current().version()).isGreaterThan(version);
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.owner.name").value("Dumbledore"));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/3/artifacts").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content[*].id").value(Matchers.contains("55", "66")))
+                .andExpect(jsonPath("$.data.content[1].owner.numberOfArtifacts").value(2));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts").param("ownerId", "null").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content[*].id").value(Matchers.contains("22", "44")));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("Check the consistency check repairs writes that bypassed the events")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testVerifyRepairsDrift() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/33").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.name").value("Map"));
+        this.jdbcTemplate.update("update artifact set name = 'Old Map' where id = 33");
+
+        assertThat(this.catalogReplica.verify()).isEqualTo(1);
+
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/33").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.name").value("Old Map"));
+        assertThat(this.catalogReplica.verify()).isZero();
+    }
+}
@@ -0,0 +1,231 @@
+package edu.tcu.cs.hogwartsartifactsonline.catalog;
+
+import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactChangedEvent;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactRepository;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.converter.ArtifactToArtifactDtoConverter;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.dto.ArtifactDto;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.ArtifactIdCodec;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.Wizard;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardChangedEvent;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardRepository;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.converter.WizardToWizardDtoConverter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogReplicaTest {
+
+    @Mock
+    ArtifactRepository artifactRepository;
+
+    @Mock
+    WizardRepository wizardRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    CatalogReplica catalogReplica;
+
+    Wizard albus;
+
+    Wizard harry;
+
+    Artifact wand;
+
+    Artifact cloak;
+
+    Artifact map;
+
+    Artifact scar;
+
+    @BeforeEach
+    void setUp() {
+        this.catalogReplica = newReplica(true);
+
+        this.albus = wizard(1, "Albus");
+        this.harry = wizard(2, "Harry");
+        this.wand = artifact(11L, "Wand", this.albus);
+        this.cloak = artifact(22L, "Cloak", this.harry);
+        this.map = artifact(33L, "Map", this.albus);
+        this.scar = artifact(66L, "Scar", null);
+        lenient().when(this.artifactRepository.findAllWithOwner()).thenReturn(List.of(this.wand, this.cloak, this.map, this.scar));
+        lenient().when(this.wizardRepository.findAll()).thenReturn(List.of(this.albus, this.harry));
+    }
+
+    @Test
+    void testLoadIndexesArtifactsByOwner() {
+        this.catalogReplica.load();
+
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+        assertThat(snapshot.version()).isEqualTo(1);
+        assertThat(snapshot.artifact(11L).owner().name()).isEqualTo("Albus");
+        assertThat(snapshot.artifacts()).extracting(ArtifactDto::id).containsExactly("11", "22", "33", "66");
+        assertThat(snapshot.wizard(2).numberOfArtifacts()).isEqualTo(1);
+        assertThat(snapshot.artifactsOwnedBy(1, PageRequest.of(0, 20, Sort.by("id")))).extracting(ArtifactDto::id).containsExactly("11", "33");
+        assertThat(snapshot.artifactsOwnedBy(null, PageRequest.of(0, 20))).extracting(ArtifactDto::id).containsExactly("66");
+        assertThat(snapshot.artifactsOwnedBy(3, PageRequest.of(0, 20))).isEmpty();
+        assertThrows(ObjectNotFoundException.class, () -> snapshot.artifact(99L));
+        assertThrows(ObjectNotFoundException.class, () -> snapshot.wizard(3));
+        assertThrows(ObjectNotFoundException.class, () -> snapshot.requireWizard(3));
+    }
+
+    @Test
+    void testArtifactsOwnedByPages() {
+        this.catalogReplica.load();
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+
+        Page<ArtifactDto> page = snapshot.artifactsOwnedBy(1, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(page).extracting(ArtifactDto::id).containsExactly("33");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(snapshot.artifactsOwnedBy(1, PageRequest.of(1, 1))).extracting(ArtifactDto::id).containsExactly("33");
+        assertThat(snapshot.artifactsOwnedBy(1, PageRequest.of(5, 1))).isEmpty();
+        assertThat(snapshot.artifactsOwnedBy(1, PageRequest.of(0, 20, Sort.by("name")))).isNull();
+    }
+
+    @Test
+    void testDisabledReplicaNeverLoads() {
+        CatalogReplica disabled = newReplica(false);
+
+        disabled.load();
+        disabled.check();
+        disabled.onArtifactChanged(ArtifactChangedEvent.ofArtifacts(List.of(11L)));
+
+        assertThat(disabled.current()).isNull();
+        verifyNoInteractions(this.artifactRepository, this.wizardRepository);
+    }
+
+    @Test
+    void testArtifactChangePublishesNewSnapshot() {
+        this.catalogReplica.load();
+        CatalogSnapshot before = this.catalogReplica.current();
+        this.albus.removeArtifact(this.wand);
+        this.harry.addArtifact(this.wand);
+        given(this.artifactRepository.findAllById(Set.of(11L))).willReturn(List.of(this.wand));
+        given(this.wizardRepository.findAllById(Set.of(1, 2))).willReturn(List.of(this.albus, this.harry));
+
+        this.catalogReplica.onArtifactChanged(ArtifactChangedEvent.ofArtifacts(List.of(11L)));
+
+        CatalogSnapshot after = this.catalogReplica.current();
+        assertThat(after.version()).isEqualTo(2);
+        assertThat(after.artifact(11L).owner().name()).isEqualTo("Harry");
+        assertThat(after.artifactsOwnedBy(2, PageRequest.of(0, 20))).extracting(ArtifactDto::id).containsExactly("11", "22");
+        // The map stayed with Albus, whose count changed.
+        assertThat(after.artifact(33L).owner().numberOfArtifacts()).isEqualTo(1);
+        assertThat(after.artifact(22L).owner().numberOfArtifacts()).isEqualTo(2);
+        assertThat(before.artifact(11L).owner().name()).isEqualTo("Albus");
+        assertThat(before.artifactsOwnedBy(1, PageRequest.of(0, 20))).hasSize(2);
+    }
+
+    @Test
+    void testOwnerChangeReloadsFormerOwnersArtifacts() {
+        this.catalogReplica.load();
+        this.albus.removeAllArtifacts();
+        given(this.artifactRepository.findAllById(Set.of(11L, 33L))).willReturn(List.of(this.wand, this.map));
+        given(this.wizardRepository.findAllById(Set.of(1))).willReturn(List.of());
+
+        this.catalogReplica.onArtifactChanged(ArtifactChangedEvent.ofOwner(1));
+
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+        assertThat(snapshot.artifactsOwnedBy(null, PageRequest.of(0, 20))).extracting(ArtifactDto::id).containsExactly("11", "33", "66");
+        assertThat(snapshot.artifact(11L).owner()).isNull();
+        assertThrows(ObjectNotFoundException.class, () -> snapshot.wizard(1));
+    }
+
+    @Test
+    void testWizardChangeReembedsOwner() {
+        this.catalogReplica.load();
+        this.harry.setName("Harry Potter");
+        given(this.wizardRepository.findAllById(Set.of(2))).willReturn(List.of(this.harry));
+
+        this.catalogReplica.onWizardChanged(new WizardChangedEvent(List.of(2)));
+
+        CatalogSnapshot snapshot = this.catalogReplica.current();
+        assertThat(snapshot.wizard(2).name()).isEqualTo("Harry Potter");
+        assertThat(snapshot.artifact(22L).owner().name()).isEqualTo("Harry Potter");
+        assertThat(snapshot.artifact(11L).owner().name()).isEqualTo("Albus");
+    }
+
+    @Test
+    void testFailedUpdateDropsReplicaUntilCheckReloads() {
+        this.catalogReplica.load();
+        given(this.artifactRepository.findAllById(any())).willThrow(new IllegalStateException("connection lost"));
+
+        this.catalogReplica.onArtifactChanged(ArtifactChangedEvent.ofArtifacts(List.of(11L)));
+        assertThat(this.catalogReplica.current()).isNull();
+
+        this.catalogReplica.check();
+        assertThat(this.catalogReplica.current().artifacts()).hasSize(4);
+    }
+
+    @Test
+    void testVerifyRepairsDrift() {
+        CatalogReplica checked = newReplica(true, true);
+        given(this.entityManager.unwrap(Session.class)).willReturn(mock(Session.class));
+        checked.load();
+        assertThat(checked.verify()).isZero();
+
+        this.map.setName("Marauder's Map");
+        checked.check();
+
+        assertThat(checked.current().artifact(33L).name()).isEqualTo("Marauder's Map");
+        verify(this.eventPublisher).publishEvent(ArtifactChangedEvent.ofArtifacts(Set.of(33L)));
+        verify(this.eventPublisher, never()).publishEvent(any(WizardChangedEvent.class));
+    }
+
+    private CatalogReplica newReplica(boolean enabled) {
+        return newReplica(enabled, false);
+    }
+
+    private CatalogReplica newReplica(boolean enabled, boolean consistencyCheck) {
+        WizardToWizardDtoConverter wizardToWizardDtoConverter = new WizardToWizardDtoConverter();
+        return new CatalogReplica(this.artifactRepository, this.wizardRepository,
+                new ArtifactToArtifactDtoConverter(wizardToWizardDtoConverter, new ArtifactIdCodec(ArtifactIdCodec.Format.DECIMAL)),
+                wizardToWizardDtoConverter, this.eventPublisher, this.entityManager, this.transactionManager, enabled, consistencyCheck);
+    }
+
+    private static Wizard wizard(Integer id, String name) {
+        Wizard wizard = new Wizard();
+        wizard.setId(id);
+        wizard.setName(name);
+        return wizard;
+    }
+
+    private static Artifact artifact(Long id, String name, Wizard owner) {
+        Artifact artifact = new Artifact();
+        artifact.setId(id);
+        artifact.setName(name);
+        artifact.setDescription(name + " desc");
+        if (owner != null) {
+            owner.addArtifact(artifact);
+        }
+        return artifact;
+    }
+}
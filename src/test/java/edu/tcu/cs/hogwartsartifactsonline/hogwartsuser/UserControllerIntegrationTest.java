@@ -2,6 +2,7 @@ package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tcu.cs.hogwartsartifactsonline.security.BoundedPasswordEncoder;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
 import org.hamcrest.Matchers;
 import org.json.JSONObject;
@@ -14,11 +15,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -38,6 +44,15 @@ public class UserControllerIntegrationTest {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    BoundedPasswordEncoder boundedPasswordEncoder;
+
     String token;
 
     @Value("${api.endpoint.base-url}")
@@ -64,6 +79,26 @@ public class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.data", Matchers.hasSize(3)));
     }
 
+    @Test
+    @DisplayName("Check findUserPage walks users by username (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void findUserPageSuccess() throws Exception {
+        MvcResult firstPage = this.mockMvc.perform(get(this.baseUrl + "/users/page").param("size", "2").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Find Page Success"))
+                .andExpect(jsonPath("$.data.content[0].username").value("eric"))
+                .andExpect(jsonPath("$.data.content[1].username").value("john"))
+                .andExpect(jsonPath("$.data.content[1].password").doesNotExist())
+                .andReturn();
+        String next = new JSONObject(firstPage.getResponse().getContentAsString()).getJSONObject("data").getString("next");
+
+        this.mockMvc.perform(get(this.baseUrl + "/users/page").param("size", "2").param("cursor", next).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].username").value("tom"))
+                .andExpect(jsonPath("$.data.next").isEmpty());
+    }
+
     @Test
     @DisplayName("Check findUserById (GET)")
     void findUserByIdSuccess() throws Exception {
@@ -270,4 +305,48 @@ public class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.data[0].username").value("john"));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Check logins are answered from the user details cache until the user changes (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testLoginUsesUserDetailsCache() throws Exception {
+        this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("eric", "654321")))
+                .andExpect(jsonPath("$.flag").value(true));
+        this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("eric", "654321")))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.userInfo.roles").value("user"));
+        // A repeated login is answered from the verified credentials; only a new password looks the user up again.
+        this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("eric", "wrong")))
+                .andExpect(jsonPath("$.code").value(StatusCode.UNAUTHORIZED));
+        this.mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "name:users", "result:hit")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+
+        HogwartsUser user = new HogwartsUser();
+        user.setUsername("eric");
+        user.setRoles("user");
+        user.setEnabled(false);
+        this.mockMvc.perform(put(this.baseUrl + "/users/2").contentType(MediaType.APPLICATION_JSON).header("Authorization", this.token)
+                        .content(this.objectMapper.writeValueAsString(user)).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+
+        this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("eric", "654321")))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.UNAUTHORIZED));
+    }
+
+    @Test
+    @DisplayName("Check a login rehashes a password stored at a lower cost (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testLoginRehashesPasswordOfLowerCost() throws Exception {
+        this.jdbcTemplate.update("update hogwarts_user set password = ? where username = 'eric'", new BCryptPasswordEncoder(4).encode("654321"));
+        this.userDetailsCache.onUserChanged(new UserChangedEvent(List.of("eric")));
+
+        this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("eric", "654321")))
+                .andExpect(jsonPath("$.flag").value(true));
+
+        String stored = this.jdbcTemplate.queryForObject("select password from hogwarts_user where username = 'eric'", String.class);
+        assertThat(stored).startsWith(String.format("$2a$%02d$", this.boundedPasswordEncoder.cost()));
+        this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("eric", "654321")))
+                .andExpect(jsonPath("$.flag").value(true));
+    }
+}
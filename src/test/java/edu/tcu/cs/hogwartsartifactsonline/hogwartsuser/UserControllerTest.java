@@ -5,6 +5,7 @@ import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.HogwartsUser;
 import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserDto;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
 import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.TooManyRequestsException;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,7 +26,9 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.mockito.BDDMockito.given;
 
 @SpringBootTest
@@ -141,6 +144,27 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.data.roles").value("admin user"));
     }
 
+    @Test
+    void addUserErrorWhenHashingIsSaturated() throws Exception {
+        HogwartsUser user = new HogwartsUser();
+        user.setUsername("emil");
+        user.setPassword("123456");
+        user.setEnabled(true);
+        user.setRoles("admin user");
+
+        String json = this.objectMapper.writeValueAsString(user);
+
+        given(this.userService.save(Mockito.any(HogwartsUser.class))).willThrow(new TooManyRequestsException("password hashing"));
+
+        this.mockMvc.perform(post(this.baseUrl + "/users").contentType(MediaType.APPLICATION_JSON).content(json)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.TOO_MANY_REQUESTS))
+                .andExpect(jsonPath("$.message").value("Too many concurrent password hashing requests, please retry later"));
+    }
+
     @Test
     void updateUserSuccess() throws Exception {
         UserDto userDto = new UserDto(3,"tommy", false, "user");
@@ -0,0 +1,94 @@
+package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsCacheTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    UserDetailsCache userDetailsCache;
+
+    HogwartsUser john;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(UserDetailsCache.CACHE_NAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100));
+        this.userDetailsCache = new UserDetailsCache(cacheManager, this.userRepository);
+
+        this.john = new HogwartsUser();
+        this.john.setId(1);
+        this.john.setUsername("john");
+        this.john.setPassword("encoded");
+        this.john.setEnabled(true);
+        this.john.setRoles("admin user");
+    }
+
+    @Test
+    void testGetLoadsOnce() {
+        given(this.userRepository.findByUsername("john")).willReturn(Optional.of(this.john));
+
+        MyUserPrincipal first = this.userDetailsCache.get("john");
+        MyUserPrincipal second = this.userDetailsCache.get("john");
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_admin", "ROLE_user");
+        verify(this.userRepository, times(1)).findByUsername("john");
+    }
+
+    @Test
+    void testCachedPrincipalIgnoresLaterChangesToTheEntity() {
+        given(this.userRepository.findByUsername("john")).willReturn(Optional.of(this.john));
+        MyUserPrincipal principal = this.userDetailsCache.get("john");
+
+        this.john.setEnabled(false);
+        principal.getHogwartsUser().setRoles("user");
+
+        assertThat(this.userDetailsCache.get("john").isEnabled()).isTrue();
+        assertThat(this.userDetailsCache.get("john").getHogwartsUser().getRoles()).isEqualTo("admin user");
+    }
+
+    @Test
+    void testUserChangeEvictsEntry() {
+        HogwartsUser disabled = new HogwartsUser();
+        disabled.setId(1);
+        disabled.setUsername("john");
+        disabled.setPassword("encoded");
+        disabled.setEnabled(false);
+        disabled.setRoles("user");
+        given(this.userRepository.findByUsername("john")).willReturn(Optional.of(this.john), Optional.of(disabled));
+        this.userDetailsCache.get("john");
+
+        this.userDetailsCache.onUserChanged(new UserChangedEvent(List.of("john")));
+
+        assertThat(this.userDetailsCache.get("john").isEnabled()).isFalse();
+        verify(this.userRepository, times(2)).findByUsername("john");
+    }
+
+    @Test
+    void testUnknownUsernameIsNotCached() {
+        given(this.userRepository.findByUsername("harry")).willReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> this.userDetailsCache.get("harry"));
+        assertThrows(UsernameNotFoundException.class, () -> this.userDetailsCache.get("harry"));
+
+        verify(this.userRepository, times(2)).findByUsername("harry");
+    }
+}
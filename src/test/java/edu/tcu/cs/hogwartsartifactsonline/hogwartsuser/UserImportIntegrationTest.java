@@ -0,0 +1,166 @@
+package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
+
+import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A low fixed cost keeps the hashing of a few hundred passwords quick.
+@SpringBootTest(properties = {"security.password-hashing.autotune=false", "security.password-hashing.cost=4"})
+@AutoConfigureMockMvc
+@DisplayName("Integration tests for bulk user provisioning")
+@Tag("integration")
+public class UserImportIntegrationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    String token;
+
+    @Value("${api.endpoint.base-url}")
+    String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MvcResult mvcResult = this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("john", "123456"))).andReturn();
+        JSONObject json = new JSONObject(mvcResult.getResponse().getContentAsString());
+        this.token = "Bearer " + json.getJSONObject("data").getString("token");
+    }
+
+    @Test
+    @DisplayName("Check importUsers reports rejected rows and imported users can log in (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testImportUsers() throws Exception {
+        String ndjson = """
+                {"username": "hermione", "password": "granger", "enabled": true, "roles": "user"}
+                {"username": "ron", "password": "", "enabled": true, "roles": "user"}
+                {"username": "eric", "password": "654321", "enabled": true, "roles": "user"}
+                {"username": "hermione", "password": "again", "enabled": true, "roles": "user"}
+                {"username": "neville", "password": "longbottom", "enabled": true, "roles": "user"}
+                """;
+
+        String importId = startImport(ndjson);
+        JSONObject report = awaitImport(importId);
+
+        assertThat(report.getBoolean("truncated")).isFalse();
+        assertThat(report.getLong("total")).isEqualTo(5);
+        assertThat(report.getLong("processed")).isEqualTo(5);
+        assertThat(report.getLong("imported")).isEqualTo(2);
+        assertThat(report.getLong("rejected")).isEqualTo(3);
+        this.mockMvc.perform(get(this.baseUrl + "/users/import/" + importId).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.errors[*].row").value(Matchers.contains(2, 3, 4)))
+                .andExpect(jsonPath("$.data.errors[0].errors.password").value("password is required"))
+                .andExpect(jsonPath("$.data.errors[1].errors.username").value("username is already taken"))
+                .andExpect(jsonPath("$.data.errors[2].errors.username").value("username appears more than once in the import"));
+        this.mockMvc.perform(get(this.baseUrl + "/users").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(5)));
+        this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("neville", "longbottom")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Check importUsers with a truncated NDJSON body reports that it stopped (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testImportUsersStopsAtMalformedJson() throws Exception {
+        String ndjson = """
+                {"username": "hermione", "password": "granger", "enabled": true, "roles": "user"}
+                {"username": "neville", "password": "longbo
+                """;
+
+        MvcResult mvcResult = this.mockMvc.perform(post(this.baseUrl + "/users/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.message").value("Import stopped at malformed JSON, see data for details"))
+                .andExpect(jsonPath("$.data.truncated").value(true))
+                .andExpect(jsonPath("$.data.total").value(2))
+                .andReturn();
+        JSONObject report = awaitImport(new JSONObject(mvcResult.getResponse().getContentAsString()).getJSONObject("data").getString("id"));
+
+        assertThat(report.getBoolean("truncated")).isTrue();
+        assertThat(report.getLong("processed")).isEqualTo(2);
+        assertThat(report.getLong("imported")).isEqualTo(1);
+        assertThat(report.getLong("rejected")).isEqualTo(1);
+        assertThat(report.getJSONArray("errors").getJSONObject(0).getLong("row")).isEqualTo(2);
+        this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("hermione", "granger")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Check importUsers writes rows in JDBC batches (POST)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testImportUsersIsBatched() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            ndjson.append("{\"username\": \"student").append(i).append("\", \"password\": \"secret\", \"enabled\": true, \"roles\": \"user\"}\n");
+        }
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        JSONObject report = awaitImport(startImport(ndjson.toString()));
+
+        assertThat(report.getLong("imported")).isEqualTo(120);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        // One username lookup, two sequence calls of 50 ids on top of those left from the seed users' block,
+        // and 120 rows in three batches of 50.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Check findUserImport with an unknown id (GET)")
+    void testFindUnknownImport() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/users/import/unknown").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.NOT_FOUND))
+                .andExpect(jsonPath("$.message").value("Could not find user import with Id unknown"));
+    }
+
+    private String startImport(String ndjson) throws Exception {
+        MvcResult mvcResult = this.mockMvc.perform(post(this.baseUrl + "/users/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.message").value("Import Started"))
+                .andReturn();
+        return new JSONObject(mvcResult.getResponse().getContentAsString()).getJSONObject("data").getString("id");
+    }
+
+    private JSONObject awaitImport(String importId) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (true) {
+            MvcResult mvcResult = this.mockMvc.perform(get(this.baseUrl + "/users/import/" + importId).header("Authorization", this.token)
+                    .accept(MediaType.APPLICATION_JSON)).andReturn();
+            JSONObject report = new JSONObject(mvcResult.getResponse().getContentAsString()).getJSONObject("data");
+            if (report.getString("status").equals("COMPLETED")) {
+                return report;
+            }
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -2,6 +2,9 @@ package edu.tcu.cs.hogwartsartifactsonline.hogwartsuser;
 
 import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.HogwartsUser;
 import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.UserRepository;
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.dto.UserDto;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorCodec;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
 import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,9 +14,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +39,12 @@ class UserServiceTest {
     @Mock
     PasswordEncoder passwordEncoder;
 
+    @Mock
+    UserDetailsCache userDetailsCache;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     UserService userService;
 
@@ -126,6 +139,7 @@ class UserServiceTest {
         assertThat(returnedUser.getPassword()).isEqualTo(newUser.getPassword());
         assertThat(returnedUser.getRoles()).isEqualTo(newUser.getRoles());
         verify(this.userRepository, times(1)).save(newUser);
+        verify(this.eventPublisher, times(1)).publishEvent(new UserChangedEvent(List.of(newUser.getUsername())));
     }
 
     @Test
@@ -145,6 +159,8 @@ class UserServiceTest {
         assertThat(updatedUser.getUsername()).isEqualTo(update.getUsername());
         verify(this.userRepository, times(1)).findById(1);
         verify(this.userRepository, times(1)).save(this.users.get(0));
+        // Both the old and the new username must stop authenticating with the old state.
+        verify(this.eventPublisher, times(1)).publishEvent(new UserChangedEvent(new LinkedHashSet<>(List.of("john", "phil"))));
     }
 
     @Test
@@ -176,6 +192,7 @@ class UserServiceTest {
 
         verify(this.userRepository, times(1)).deleteById(1);
         verify(this.userRepository, times(1)).findById(1);
+        verify(this.eventPublisher, times(1)).publishEvent(new UserChangedEvent(List.of("john")));
     }
 
     @Test
@@ -191,4 +208,40 @@ class UserServiceTest {
                 .hasMessage("Could not find user with Id 1");
         verify(this.userRepository, times(1)).findById(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLoadUserByUsernameUsesCache() {
+        MyUserPrincipal principal = new MyUserPrincipal(this.users.get(0));
+        given(this.userDetailsCache.get("john")).willReturn(principal);
+
+        assertThat(this.userService.loadUserByUsername("john")).isSameAs(principal);
+        verifyNoInteractions(this.userRepository);
+    }
+
+    @Test
+    void testUpdatePasswordStoresRehashedPassword() {
+        HogwartsUser john = this.users.get(0);
+        given(this.userRepository.findByUsername("john")).willReturn(Optional.of(john));
+        given(this.userRepository.save(john)).willReturn(john);
+
+        UserDetails updated = this.userService.updatePassword(new MyUserPrincipal(john), "rehashed");
+
+        assertThat(updated.getPassword()).isEqualTo("rehashed");
+        assertThat(john.getPassword()).isEqualTo("rehashed");
+        verify(this.userRepository, times(1)).save(john);
+        verify(this.eventPublisher, times(1)).publishEvent(new UserChangedEvent(List.of("john")));
+    }
+
+    @Test
+    void testFindPageAfterCursor() {
+        String cursor = CursorCodec.encode("eric", "2");
+        given(this.userRepository.findDtosOrderByUsernameAfter("eric", 2, PageRequest.of(0, 2))).willReturn(List.of(
+                new UserDto(1, "john", true, "admin user"), new UserDto(3, "tom", false, "user")));
+
+        CursorPage<UserDto> page = this.userService.findPage(cursor, 1);
+
+        assertThat(page.content()).extracting(UserDto::username).containsExactly("john");
+        assertThat(CursorCodec.decode(page.next(), 2)).containsExactly("john", "1");
+        verify(this.userRepository, never()).findAll();
+    }
+}
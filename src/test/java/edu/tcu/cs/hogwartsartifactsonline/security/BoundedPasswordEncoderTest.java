@@ -0,0 +1,123 @@
+package edu.tcu.cs.hogwartsartifactsonline.security;
+
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedPasswordEncoderTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    ExecutorService callers;
+
+    BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.callers.shutdownNow();
+        if (this.encoder != null) {
+            this.encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testEncodeAndMatchRunOnTheHashingPool() {
+        this.encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 4, this.meterRegistry, 1, 1);
+
+        String encoded = this.encoder.encode("123456");
+
+        assertThat(encoded).startsWith("$2a$04$");
+        assertThat(this.encoder.matches("123456", encoded)).isTrue();
+        assertThat(this.encoder.matches("654321", encoded)).isFalse();
+        assertThat(this.meterRegistry.get("password.hashing").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(this.meterRegistry.get("password.hashing").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(this.meterRegistry.get("executor.pool.max").tag("name", "password-hashing").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testFullQueueIsRejected() throws Exception {
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        this.encoder = new BoundedPasswordEncoder(blocking, 4, this.meterRegistry, 1, 1);
+
+        Future<String> running = this.callers.submit(() -> this.encoder.encode("first"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = this.callers.submit(() -> this.encoder.encode("second"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.meterRegistry.get("executor.queued").tag("name", "password-hashing").gauge().value() < 1) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> this.encoder.encode("third"));
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+    }
+
+    @Test
+    void testEncodeAllHashesInOrderWithoutFillingTheQueue() {
+        this.encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 4, this.meterRegistry, 1, 1);
+        List<String> rawPasswords = List.of("one", "two", "three", "four", "five");
+
+        List<String> encodedPasswords = this.encoder.encodeAll(rawPasswords);
+
+        assertThat(encodedPasswords).hasSize(5);
+        for (int i = 0; i < rawPasswords.size(); i++) {
+            assertThat(this.encoder.matches(rawPasswords.get(i), encodedPasswords.get(i))).isTrue();
+        }
+        assertThat(this.meterRegistry.get("password.hashing").tag("operation", "encode").timer().count()).isEqualTo(5);
+    }
+
+    @Test
+    void testUpgradeEncodingOnlyWhenCostIsLower() {
+        this.encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(10), 10, this.meterRegistry, 1, 1);
+
+        assertThat(this.encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("123456"))).isTrue();
+        assertThat(this.encoder.upgradeEncoding("$2a$12$" + "a".repeat(53))).isFalse();
+        assertThat(this.encoder.upgradeEncoding("$2a$10$" + "a".repeat(53))).isFalse();
+        assertThat(this.encoder.upgradeEncoding("not a bcrypt hash")).isFalse();
+        assertThat(this.encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void testTuneCostStaysWithinBounds() {
+        assertThat(BoundedPasswordEncoder.tuneCost(Duration.ofNanos(1), 10, 16)).isEqualTo(10);
+        assertThat(BoundedPasswordEncoder.tuneCost(Duration.ofDays(1), 4, 9)).isEqualTo(9);
+        int tuned = BoundedPasswordEncoder.tuneCost(Duration.ofMillis(250), 4, 31);
+        assertThat(tuned).isBetween(8, 31);
+    }
+}
@@ -0,0 +1,63 @@
+package edu.tcu.cs.hogwartsartifactsonline.security;
+
+import edu.tcu.cs.hogwartsartifactsonline.HogwartsArtifactsOnlineApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput of a client that sends the same HTTP Basic credentials on every request: the plain DAO provider,
+ * which runs BCrypt each time, against {@link CachingAuthenticationProvider}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="CachingAuthenticationProviderBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachingAuthenticationProviderBenchmark {
+
+    @Param({"uncached", "cached"})
+    public String provider;
+
+    private ConfigurableApplicationContext context;
+
+    private AuthenticationProvider authenticationProvider;
+
+    @Setup
+    public void setUp() {
+        // The security configuration needs a servlet context, so the application starts on a random port.
+        this.context = new SpringApplicationBuilder(HogwartsArtifactsOnlineApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:credential-cache-benchmark",
+                        "--logging.level.root=WARN");
+        if (this.provider.equals("cached")) {
+            this.authenticationProvider = this.context.getBean(CachingAuthenticationProvider.class);
+        } else {
+            DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+            daoAuthenticationProvider.setPasswordEncoder(this.context.getBean(PasswordEncoder.class));
+            daoAuthenticationProvider.setUserDetailsService(this.context.getBean(UserDetailsService.class));
+            this.authenticationProvider = daoAuthenticationProvider;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return this.authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", "123456"));
+    }
+}
@@ -0,0 +1,126 @@
+package edu.tcu.cs.hogwartsartifactsonline.security;
+
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.HogwartsUser;
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.MyUserPrincipal;
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingAuthenticationProviderTest {
+
+    @Mock
+    UserDetailsService userDetailsService;
+
+    @Mock
+    UserDetailsPasswordService userDetailsPasswordService;
+
+    @Mock
+    PasswordEncoder passwordEncoder;
+
+    CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        this.provider = new CachingAuthenticationProvider(this.userDetailsService, this.userDetailsPasswordService, this.passwordEncoder, 100, Duration.ofMinutes(5));
+
+        HogwartsUser john = new HogwartsUser();
+        john.setId(1);
+        john.setUsername("john");
+        john.setPassword("encoded");
+        john.setEnabled(true);
+        john.setRoles("admin user");
+        lenient().when(this.userDetailsService.loadUserByUsername("john")).thenReturn(new MyUserPrincipal(john));
+        lenient().when(this.passwordEncoder.matches("123456", "encoded")).thenReturn(true);
+    }
+
+    @Test
+    void testRepeatedLoginVerifiesPasswordOnce() {
+        Authentication first = this.provider.authenticate(login("john", "123456"));
+        Authentication second = this.provider.authenticate(login("john", "123456"));
+
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("john");
+        assertThat(second.getCredentials()).isNull();
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        verify(this.passwordEncoder, times(1)).matches("123456", "encoded");
+        assertThat(this.provider.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testLoginRehashesWhenTheEncoderAsksForIt() {
+        given(this.passwordEncoder.upgradeEncoding("encoded")).willReturn(true);
+        lenient().when(this.passwordEncoder.encode("123456")).thenReturn("rehashed");
+        given(this.userDetailsPasswordService.updatePassword(any(), eq("rehashed"))).willAnswer(invocation -> invocation.getArgument(0));
+
+        Authentication authentication = this.provider.authenticate(login("john", "123456"));
+
+        assertThat(authentication.getName()).isEqualTo("john");
+        verify(this.userDetailsPasswordService, times(1)).updatePassword(any(), eq("rehashed"));
+    }
+
+    @Test
+    void testFailedLoginIsNotCached() {
+        assertThrows(BadCredentialsException.class, () -> this.provider.authenticate(login("john", "wrong")));
+        assertThrows(BadCredentialsException.class, () -> this.provider.authenticate(login("john", "wrong")));
+
+        verify(this.passwordEncoder, times(2)).matches("wrong", "encoded");
+        assertThat(this.provider.size()).isZero();
+    }
+
+    @Test
+    void testOtherPasswordIsVerifiedAgain() {
+        this.provider.authenticate(login("john", "123456"));
+
+        assertThrows(BadCredentialsException.class, () -> this.provider.authenticate(login("john", "1234567")));
+        verify(this.passwordEncoder, times(1)).matches("1234567", "encoded");
+    }
+
+    @Test
+    void testUserChangeEvictsThatUsersVerifications() {
+        this.provider.authenticate(login("john", "123456"));
+
+        this.provider.onUserChanged(new UserChangedEvent(List.of("eric")));
+        this.provider.authenticate(login("john", "123456"));
+        verify(this.passwordEncoder, times(1)).matches("123456", "encoded");
+
+        this.provider.onUserChanged(new UserChangedEvent(List.of("john")));
+        this.provider.authenticate(login("john", "123456"));
+        verify(this.passwordEncoder, times(2)).matches("123456", "encoded");
+    }
+
+    @Test
+    void testVerificationOverlappingAUserChangeIsNotCached() {
+        given(this.passwordEncoder.matches("123456", "encoded")).willAnswer(invocation -> {
+            this.provider.onUserChanged(new UserChangedEvent(List.of("john")));
+            return true;
+        });
+
+        this.provider.authenticate(login("john", "123456"));
+
+        assertThat(this.provider.size()).isZero();
+    }
+
+    private static UsernamePasswordAuthenticationToken login(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
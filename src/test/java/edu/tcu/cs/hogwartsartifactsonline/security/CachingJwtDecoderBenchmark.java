@@ -0,0 +1,79 @@
+package edu.tcu.cs.hogwartsartifactsonline.security;
+
+import edu.tcu.cs.hogwartsartifactsonline.HogwartsArtifactsOnlineApplication;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of authenticated {@code GET /wizards} over HTTP with the same bearer token on every request, with and
+ * without {@link CachingJwtDecoder} remembering the decoded token.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="CachingJwtDecoderBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachingJwtDecoderBenchmark {
+
+    @Param({"false", "true"})
+    public String jwtCache;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private HttpRequest findAllWizards;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Passed as arguments, since properties set on the builder lose to application.yml.
+        this.context = new SpringApplicationBuilder(HogwartsArtifactsOnlineApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:jwt-cache-benchmark",
+                        "--security.jwt-cache.enabled=" + this.jwtCache,
+                        "--logging.level.root=WARN");
+        int port = ((WebServerApplicationContext) this.context).getWebServer().getPort();
+        String baseUrl = "http://localhost:" + port + this.context.getEnvironment().getProperty("api.endpoint.base-url");
+        this.httpClient = HttpClient.newHttpClient();
+
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/users/login"))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString("john:123456".getBytes(StandardCharsets.UTF_8)))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        String body = this.httpClient.send(login, HttpResponse.BodyHandlers.ofString()).body();
+        String token = new JSONObject(body).getJSONObject("data").getString("token");
+        this.findAllWizards = HttpRequest.newBuilder(URI.create(baseUrl + "/wizards"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public int findAllWizards() throws Exception {
+        HttpResponse<String> response = this.httpClient.send(this.findAllWizards, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /wizards answered " + response.statusCode());
+        }
+        return response.body().length();
+    }
+}
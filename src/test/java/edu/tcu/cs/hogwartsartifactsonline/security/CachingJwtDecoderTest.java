@@ -0,0 +1,124 @@
+package edu.tcu.cs.hogwartsartifactsonline.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    @Mock
+    JwtDecoder delegate;
+
+    @Mock
+    Converter<Jwt, AbstractAuthenticationToken> jwtAuthenticationConverter;
+
+    CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName("authorities");
+        jwtGrantedAuthoritiesConverter.setAuthorityPrefix("");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
+        lenient().when(this.jwtAuthenticationConverter.convert(any())).thenAnswer(invocation -> converter.convert(invocation.getArgument(0)));
+        this.decoder = new CachingJwtDecoder(this.delegate, this.jwtAuthenticationConverter, true, 100);
+    }
+
+    @Test
+    void testRepeatedTokenIsDecodedOnce() {
+        Jwt jwt = jwt("token", Instant.now().plus(2, ChronoUnit.HOURS));
+        given(this.delegate.decode("token")).willReturn(jwt);
+
+        Jwt first = this.decoder.decode("token");
+        Jwt second = this.decoder.decode("token");
+
+        assertThat(second).isSameAs(first);
+        verify(this.delegate, times(1)).decode("token");
+        assertThat(this.decoder.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testEveryRequestGetsItsOwnAuthentication() {
+        Jwt jwt = jwt("token", Instant.now().plus(2, ChronoUnit.HOURS));
+        given(this.delegate.decode("token")).willReturn(jwt);
+
+        AbstractAuthenticationToken first = this.decoder.convert(this.decoder.decode("token"));
+        first.setDetails("first request");
+        AbstractAuthenticationToken second = this.decoder.convert(this.decoder.decode("token"));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("john");
+        assertThat(second.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_admin", "ROLE_user");
+        verify(this.jwtAuthenticationConverter, times(1)).convert(jwt);
+    }
+
+    @Test
+    void testRejectedTokenIsNotCached() {
+        given(this.delegate.decode("forged")).willThrow(new BadJwtException("Invalid signature"));
+
+        assertThrows(BadJwtException.class, () -> this.decoder.decode("forged"));
+        assertThrows(BadJwtException.class, () -> this.decoder.decode("forged"));
+
+        verify(this.delegate, times(2)).decode("forged");
+        assertThat(this.decoder.size()).isZero();
+    }
+
+    @Test
+    void testExpiredTokenIsNotCached() {
+        // Within the delegate's clock skew, so it still decodes.
+        given(this.delegate.decode("token")).willReturn(jwt("token", Instant.now().minusSeconds(10)));
+
+        this.decoder.decode("token");
+        this.decoder.decode("token");
+
+        verify(this.delegate, times(2)).decode("token");
+        assertThat(this.decoder.size()).isZero();
+    }
+
+    @Test
+    void testDisabledCacheAlwaysDelegates() {
+        CachingJwtDecoder disabled = new CachingJwtDecoder(this.delegate, this.jwtAuthenticationConverter, false, 100);
+        Jwt jwt = jwt("token", Instant.now().plus(2, ChronoUnit.HOURS));
+        given(this.delegate.decode("token")).willReturn(jwt);
+
+        disabled.convert(disabled.decode("token"));
+        disabled.convert(disabled.decode("token"));
+
+        verify(this.delegate, times(2)).decode("token");
+        verify(this.jwtAuthenticationConverter, times(2)).convert(jwt);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .issuer("self")
+                .subject("john")
+                .issuedAt(expiresAt.minus(2, ChronoUnit.HOURS))
+                .expiresAt(expiresAt)
+                .claim("authorities", "ROLE_admin ROLE_user")
+                .build();
+    }
+}
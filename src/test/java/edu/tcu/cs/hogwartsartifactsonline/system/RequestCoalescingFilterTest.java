@@ -0,0 +1,184 @@
+package edu.tcu.cs.hogwartsartifactsonline.system;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescingFilterTest {
+
+    RequestCoalescingFilter filter;
+
+    ExecutorService executor;
+
+    AtomicInteger handlerCalls;
+
+    CountDownLatch handlerEntered;
+
+    CountDownLatch releaseHandler;
+
+    @BeforeEach
+    void setUp() {
+        this.filter = new RequestCoalescingFilter("/api/v1", Duration.ofSeconds(30));
+        this.executor = Executors.newSingleThreadExecutor();
+        this.handlerCalls = new AtomicInteger();
+        this.handlerEntered = new CountDownLatch(1);
+        this.releaseHandler = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsShareOneHandlerCall() throws Exception {
+        FilterChain blockingChain = (request, response) -> {
+            this.handlerCalls.incrementAndGet();
+            this.handlerEntered.countDown();
+            awaitRelease();
+            response.setContentType("application/json");
+            ((HttpServletResponse) response).setHeader("ETag", "\"3\"");
+            ((HttpServletResponse) response).setHeader("Last-Modified", "Tue, 15 Nov 1994 12:45:26 GMT");
+            ((HttpServletResponse) response).addHeader("Vary", "Accept");
+            ((HttpServletResponse) response).addHeader("Vary", "Origin");
+            response.getOutputStream().write("{\"flag\":true}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        Future<MockHttpServletResponse> leader = this.executor.submit(() -> perform("/api/v1/artifacts/11", blockingChain));
+        assertThat(this.handlerEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        MockHttpServletResponse followerResponse = new MockHttpServletResponse();
+        Thread follower = new Thread(() -> {
+            try {
+                this.filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/artifacts/11"), followerResponse, blockingChain);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        follower.start();
+        // The follower parks on the leader's future with a timeout.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (follower.getState() != Thread.State.TIMED_WAITING) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+        this.releaseHandler.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo("{\"flag\":true}");
+        follower.join(5000);
+        assertThat(followerResponse.getContentAsString()).isEqualTo("{\"flag\":true}");
+        assertThat(followerResponse.getContentType()).isEqualTo("application/json");
+        assertThat(followerResponse.getHeader("ETag")).isEqualTo("\"3\"");
+        assertThat(followerResponse.getHeader("Last-Modified")).isEqualTo("Tue, 15 Nov 1994 12:45:26 GMT");
+        assertThat(followerResponse.getHeaders("Vary")).containsExactly("Accept", "Origin");
+        assertThat(followerResponse.getHeaders("Content-Type")).containsExactly("application/json");
+        assertThat(this.handlerCalls).hasValue(1);
+    }
+
+    @Test
+    void testFollowerRunsHandlerItselfAfterMaxWait() throws Exception {
+        this.filter = new RequestCoalescingFilter("/api/v1", Duration.ofMillis(50));
+        FilterChain chain = (request, response) -> {
+            if (this.handlerCalls.incrementAndGet() == 1) {
+                this.handlerEntered.countDown();
+                awaitRelease();
+            }
+            response.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        Future<MockHttpServletResponse> leader = this.executor.submit(() -> perform("/api/v1/wizards", chain));
+        assertThat(this.handlerEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(perform("/api/v1/wizards", chain).getContentAsString()).isEqualTo("{}");
+        assertThat(this.handlerCalls).hasValue(2);
+        this.releaseHandler.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testRequestsAreNotSharedAfterLeaderCompletes() throws Exception {
+        FilterChain chain = (request, response) -> this.handlerCalls.incrementAndGet();
+
+        perform("/api/v1/artifacts/11", chain);
+        perform("/api/v1/artifacts/11", chain);
+
+        assertThat(this.handlerCalls).hasValue(2);
+    }
+
+    @Test
+    void testRequestsWithDifferentIfNoneMatchAreNotShared() throws Exception {
+        FilterChain chain = (request, response) -> {
+            if (this.handlerCalls.incrementAndGet() == 1) {
+                this.handlerEntered.countDown();
+                awaitRelease();
+            }
+        };
+
+        Future<MockHttpServletResponse> leader = this.executor.submit(() -> perform("/api/v1/wizards/1", chain));
+        assertThat(this.handlerEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/v1/wizards/1");
+        conditional.addHeader("If-None-Match", "\"0\"");
+        this.filter.doFilter(conditional, new MockHttpServletResponse(), chain);
+
+        assertThat(this.handlerCalls).hasValue(2);
+        this.releaseHandler.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testLeaderFailureIsNotShared() {
+        FilterChain failingChain = (request, response) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        assertThatThrownBy(() -> perform("/api/v1/artifacts/11", failingChain)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testOtherMethodsAndPathsAreNotFiltered() {
+        MockHttpServletRequest put = new MockHttpServletRequest("PUT", "/api/v1/artifacts/1");
+        MockHttpServletRequest users = new MockHttpServletRequest("GET", "/api/v1/users");
+
+        assertThat(this.filter.shouldNotFilter(put)).isTrue();
+        assertThat(this.filter.shouldNotFilter(users)).isTrue();
+        assertThat(this.filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/v1/artifacts"))).isTrue();
+        MockHttpServletRequest catalogWithQuery = new MockHttpServletRequest("GET", "/api/v1/artifacts");
+        catalogWithQuery.setQueryString("page=0");
+        catalogWithQuery.setParameter("page", "0");
+        assertThat(this.filter.shouldNotFilter(catalogWithQuery)).isTrue();
+        MockHttpServletRequest byOwner = new MockHttpServletRequest("GET", "/api/v1/artifacts");
+        byOwner.setQueryString("ownerId=1");
+        byOwner.setParameter("ownerId", "1");
+        assertThat(this.filter.shouldNotFilter(byOwner)).isFalse();
+        assertThat(this.filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/v1/wizards/1"))).isFalse();
+    }
+
+    private void awaitRelease() {
+        try {
+            this.releaseHandler.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MockHttpServletResponse perform(String uri, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+        return response;
+    }
+}
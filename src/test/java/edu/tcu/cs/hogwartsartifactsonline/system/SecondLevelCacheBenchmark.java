@@ -0,0 +1,94 @@
+package edu.tcu.cs.hogwartsartifactsonline.system;
+
+import edu.tcu.cs.hogwartsartifactsonline.HogwartsArtifactsOnlineApplication;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactService;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.HogwartsUser;
+import edu.tcu.cs.hogwartsartifactsonline.hogwartsuser.UserRepository;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.WizardController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the reads behind the listing endpoints (artifacts and wizards, and the username lookup behind every login)
+ * with the Hibernate second-level and query caches switched off and on.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="SecondLevelCacheBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int SEEDED_ARTIFACTS = 1000;
+
+    @Param({"false", "true"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+
+    private ArtifactService artifactService;
+
+    private WizardController wizardController;
+
+    private UserRepository userRepository;
+
+    @Setup
+    public void setUp() {
+        // The security configuration needs a servlet context, so the application starts on a random port.
+        this.context = new SpringApplicationBuilder(HogwartsArtifactsOnlineApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:second-level-cache-benchmark",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + this.secondLevelCache,
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=" + this.secondLevelCache,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        this.artifactService = this.context.getBean(ArtifactService.class);
+        this.wizardController = this.context.getBean(WizardController.class);
+        this.userRepository = this.context.getBean(UserRepository.class);
+
+        long[] ids = this.context.getBean(IdWorker.class).nextIds(SEEDED_ARTIFACTS);
+        List<Object[]> rows = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            rows.add(new Object[]{ids[i], "Artifact " + ids[i], i % 3 + 1});
+        }
+        this.context.getBean(JdbcTemplate.class)
+                .batchUpdate("insert into artifact (id, name, description, image_url, owner_id) values (?, ?, 'desc', 'url', ?)", rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    // GET /artifacts itself is served from a file snapshot; this is the read that rebuilds it.
+    @Benchmark
+    public List<Artifact> findAllArtifacts() {
+        return this.artifactService.findAll();
+    }
+
+    @Benchmark
+    public Result findAllWizards() {
+        return this.wizardController.findAllWizards(new ServletWebRequest(new MockHttpServletRequest()));
+    }
+
+    // The query behind UserDetailsCache, which answers repeated logins itself.
+    @Benchmark
+    public Optional<HogwartsUser> findByUsername() {
+        return this.userRepository.findByUsername("john");
+    }
+}
@@ -0,0 +1,49 @@
+package edu.tcu.cs.hogwartsartifactsonline.wizard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WizardArtifactCountReconcilerTest {
+
+    @Mock
+    WizardRepository wizardRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    WizardArtifactCountReconciler wizardArtifactCountReconciler;
+
+    @Test
+    void testReconcileRepairsDriftedWizards() {
+        given(this.wizardRepository.findIdsWithArtifactCountDrift()).willReturn(List.of(1, 3));
+        given(this.wizardRepository.recountArtifacts(List.of(1, 3))).willReturn(2);
+
+        List<Integer> repaired = this.wizardArtifactCountReconciler.reconcile();
+
+        assertThat(repaired).containsExactly(1, 3);
+        verify(this.wizardRepository, times(1)).recountArtifacts(List.of(1, 3));
+        verify(this.eventPublisher, times(1)).publishEvent(new WizardChangedEvent(List.of(1, 3)));
+    }
+
+    @Test
+    void testReconcileWithoutDrift() {
+        given(this.wizardRepository.findIdsWithArtifactCountDrift()).willReturn(List.of());
+
+        List<Integer> repaired = this.wizardArtifactCountReconciler.reconcile();
+
+        assertThat(repaired).isEmpty();
+        verify(this.wizardRepository, never()).recountArtifacts(anyCollection());
+    }
+}
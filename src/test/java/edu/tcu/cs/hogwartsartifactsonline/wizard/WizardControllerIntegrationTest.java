@@ -2,6 +2,9 @@ package edu.tcu.cs.hogwartsartifactsonline.wizard;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.hamcrest.Matchers;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,18 +16,23 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureMockMvc
 @DisplayName("Integration tests for Wizard API endpoints")
 @Tag("integration")
@@ -36,6 +44,15 @@ public class WizardControllerIntegrationTest {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    WizardArtifactCountReconciler wizardArtifactCountReconciler;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     String token;
 
     @Value("${api.endpoint.base-url}")
@@ -254,4 +271,282 @@ public class WizardControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Could not find artifact with Id 666"))
                 .andExpect(jsonPath("$.data").isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Check assignArtifact keeps artifact counts (PUT)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testAssignArtifactToWizardUpdatesArtifactCounts() throws Exception {
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/3/artifacts/11").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(1));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/3").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(2));
+    }
+
+    @Test
+    @DisplayName("Check artifact count drift is repaired by the reconciler")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testArtifactCountReconciliation() throws Exception {
+        this.jdbcTemplate.update("update wizard set artifact_count = 99 where id = 1");
+
+        assertThat(this.wizardArtifactCountReconciler.reconcile()).containsExactly(1);
+        assertThat(this.wizardArtifactCountReconciler.reconcile()).isEmpty();
+
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(2));
+    }
+
+    @Test
+    @DisplayName("Check deleteWizard leaves its artifacts unowned (DELETE)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testDeleteWizardUnassignsArtifacts() throws Exception {
+        this.mockMvc.perform(delete(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.message").value("Delete Success"));
+
+        assertThat(this.jdbcTemplate.queryForObject("select count(*) from artifact where owner_id is null", Integer.class)).isEqualTo(3);
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/11").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.owner").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check transferArtifacts moves all artifacts and their counts (PUT)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testTransferArtifactsSuccess() throws Exception {
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/1/artifacts/transfer/2").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Artifact Transfer Success"))
+                .andExpect(jsonPath("$.data").value(2));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(0));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/2").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(4));
+        this.mockMvc.perform(get(this.baseUrl + "/artifacts/33").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.owner.id").value(2));
+        assertThat(this.wizardArtifactCountReconciler.reconcile()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Check transferArtifacts with non-existent new owner (PUT)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testTransferArtifactsErrorWithNonExistentNewOwner() throws Exception {
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/1/artifacts/transfer/5").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.NOT_FOUND))
+                .andExpect(jsonPath("$.message").value("Could not find wizard with Id 5"));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(2));
+    }
+
+    @Test
+    @DisplayName("Check assignArtifacts moves several artifacts at once (PUT)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testAssignArtifactsSuccess() throws Exception {
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/3/artifacts").contentType(MediaType.APPLICATION_JSON).content("[\"11\", \"22\", \"55\", \"66\"]")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Artifact Assignment Success"))
+                .andExpect(jsonPath("$.data").value(4));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(1));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/2").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(1));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/3").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(4));
+        assertThat(this.wizardArtifactCountReconciler.reconcile()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Check assignArtifacts with a non-existent artifact changes nothing (PUT)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testAssignArtifactsErrorWithNonExistentArtifactId() throws Exception {
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/3/artifacts").contentType(MediaType.APPLICATION_JSON).content("[\"11\", \"666\"]")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.NOT_FOUND))
+                .andExpect(jsonPath("$.message").value("Could not find artifact with Id 666"));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/3").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(1));
+    }
+
+    @Test
+    @DisplayName("Check findWizardArtifacts pages and sorts a wizard's artifacts (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindWizardArtifactsSuccess() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1/artifacts").param("size", "1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Find All Success"))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].id").value("11"))
+                .andExpect(jsonPath("$.data.content[0].owner.id").value(1))
+                .andExpect(jsonPath("$.data.totalElements").value(2));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1/artifacts").param("sort", "id,desc").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content[0].id").value("33"))
+                .andExpect(jsonPath("$.data.content[1].id").value("11"));
+    }
+
+    @Test
+    @DisplayName("Check findWizardArtifacts with non-existent wizard (GET)")
+    void testFindWizardArtifactsErrorWithNonExistentWizardId() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/5/artifacts").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.NOT_FOUND))
+                .andExpect(jsonPath("$.message").value("Could not find wizard with Id 5"));
+    }
+
+    @Test
+    @DisplayName("Check findWizardArtifacts with an unknown sort property (GET)")
+    void testFindWizardArtifactsErrorWithUnknownSortProperty() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1/artifacts").param("sort", "color").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.message").value("Cannot sort by color"));
+    }
+
+    @Test
+    @DisplayName("Check findAllWizards is served from the query cache until a wizard changes (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindAllWizardsUsesQueryCache() throws Exception {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(3)));
+        statistics.clear();
+
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(3)))
+                .andExpect(jsonPath("$.data[0].name").value("Albus"));
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        Wizard wizard = new Wizard();
+        wizard.setId(1);
+        wizard.setName("Wizard update");
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/1").contentType(MediaType.APPLICATION_JSON).header("Authorization", this.token)
+                        .content(this.objectMapper.writeValueAsString(wizard)).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data[0].name").value("Wizard update"));
+    }
+
+    @Test
+    @DisplayName("Check findWizardPage walks wizards by name without loading entities (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindWizardPageByName() throws Exception {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MvcResult firstPage = this.mockMvc.perform(get(this.baseUrl + "/wizards/page").param("size", "2").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Find Page Success"))
+                .andExpect(jsonPath("$.data.content[0].name").value("Albus"))
+                .andExpect(jsonPath("$.data.content[1].name").value("Harry"))
+                .andExpect(jsonPath("$.data.content[1].numberOfArtifacts").value(2))
+                .andReturn();
+        String next = new JSONObject(firstPage.getResponse().getContentAsString()).getJSONObject("data").getString("next");
+
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/page").param("size", "2").param("cursor", next).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].name").value("Hermiona"))
+                .andExpect(jsonPath("$.data.next").isEmpty());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Check findWizardPage walks wizards by number of artifacts (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindWizardPageByNumberOfArtifacts() throws Exception {
+        MvcResult firstPage = this.mockMvc.perform(get(this.baseUrl + "/wizards/page").param("size", "2").param("sort", "numberOfArtifacts")
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content[0].name").value("Hermiona"))
+                .andExpect(jsonPath("$.data.content[1].name").value("Albus"))
+                .andReturn();
+        String next = new JSONObject(firstPage.getResponse().getContentAsString()).getJSONObject("data").getString("next");
+
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/page").param("size", "2").param("sort", "numberOfArtifacts").param("cursor", next)
+                        .header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].name").value("Harry"));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/page").param("cursor", next).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT));
+    }
+
+    @Test
+    @DisplayName("Check findWizardPage with an unsupported sort (GET)")
+    void testFindWizardPageErrorWithUnsupportedSort() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/page").param("sort", "color").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.message").value("Cannot sort by color"));
+    }
+
+    @Test
+    @DisplayName("Check findWizardById and findAllWizards answer 304 to a current ETag and updateWizard rejects a stale If-Match (GET, PUT)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testWizardEntityTags() throws Exception {
+        String etag = this.mockMvc.perform(get(this.baseUrl + "/wizards/2").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+        MockHttpServletResponse collection = this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse();
+        String collectionEtag = collection.getHeader("ETag");
+        String collectionLastModified = collection.getHeader("Last-Modified");
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/2").header("If-None-Match", etag).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("If-None-Match", collectionEtag).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("If-Modified-Since", collectionLastModified).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        String updatedEtag = this.mockMvc.perform(put(this.baseUrl + "/wizards/2").contentType(MediaType.APPLICATION_JSON).header("If-Match", etag)
+                        .content("{\"name\": \"Harry Potter\"}").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(updatedEtag).isNotEqualTo(etag);
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/2").contentType(MediaType.APPLICATION_JSON).header("If-Match", etag)
+                        .content("{\"name\": \"Harry\"}").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.PRECONDITION_FAILED))
+                .andExpect(jsonPath("$.message").value("The wizard with Id 2 has changed since it was read"));
+
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/2").header("If-None-Match", etag).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", updatedEtag))
+                .andExpect(jsonPath("$.data.name").value("Harry Potter"));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("If-None-Match", collectionEtag).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", Matchers.hasSize(3)));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("If-Modified-Since", collectionLastModified).header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Check a token with a forged signature is rejected after the genuine one was remembered (GET)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testForgedTokenIsRejectedAfterGenuineOne() throws Exception {
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        // Changing a character in the middle of the signature, since the last one may only carry padding bits.
+        int signatureCharacter = this.token.lastIndexOf('.') + 10;
+        char forgedCharacter = this.token.charAt(signatureCharacter) == 'A' ? 'B' : 'A';
+        String forgedToken = this.token.substring(0, signatureCharacter) + forgedCharacter + this.token.substring(signatureCharacter + 1);
+
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", forgedToken).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.UNAUTHORIZED));
+        this.mockMvc.perform(get(this.baseUrl + "/wizards").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+}
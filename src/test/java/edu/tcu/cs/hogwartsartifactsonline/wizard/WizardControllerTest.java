@@ -111,7 +111,7 @@ class WizardControllerTest {
 
     @Test
     void testAddWizardSuccess() throws Exception {
-        WizardDto wizardDto = new WizardDto(null, "Hugh", 0);
+        WizardDto wizardDto = new WizardDto(null, "Hugh", 0, null);
 
         String json = this.objectMapper.writeValueAsString(wizardDto);
 
@@ -133,7 +133,7 @@ class WizardControllerTest {
 
     @Test
     void testUpdateWizardSuccess() throws Exception {
-        WizardDto wizardDto = new WizardDto(null, "Reno", 0);
+        WizardDto wizardDto = new WizardDto(null, "Reno", 0, null);
 
         String json = this.objectMapper.writeValueAsString(wizardDto);
 
@@ -141,7 +141,7 @@ class WizardControllerTest {
         updatedWizard.setId(1);
         updatedWizard.setName("Reno");
 
-        given(this.wizardService.update(eq(1), Mockito.any(Wizard.class))).willReturn(updatedWizard);
+        given(this.wizardService.update(eq(1), Mockito.any(Wizard.class), Mockito.isNull())).willReturn(updatedWizard);
 
         this.mockMvc.perform(put(this.baseUrl + "/wizards/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -156,11 +156,11 @@ class WizardControllerTest {
 
     @Test
     void testUpdateWizardNotFound() throws Exception {
-        WizardDto wizardDto = new WizardDto(null, "Reno", 0);
+        WizardDto wizardDto = new WizardDto(null, "Reno", 0, null);
 
         String json = this.objectMapper.writeValueAsString(wizardDto);
 
-        given(this.wizardService.update(eq(1), Mockito.any(Wizard.class)))
+        given(this.wizardService.update(eq(1), Mockito.any(Wizard.class), Mockito.isNull()))
                 .willThrow(new ObjectNotFoundException("wizard", 1));
 
         this.mockMvc.perform(put(this.baseUrl + "/wizards/1")
@@ -200,7 +200,7 @@ class WizardControllerTest {
     @Test
     void testAssignArtifactErrorWithNonExistentWizardId() throws Exception {
         doThrow(new ObjectNotFoundException("wizard", 1))
-                .when(this.wizardService).assignArtifact(1, "1985");
+                .when(this.wizardService).assignArtifact(1, 1985L);
 
         this.mockMvc.perform(put(this.baseUrl + "/wizards/1/artifacts/1985")
                 .accept(MediaType.APPLICATION_JSON))
@@ -212,8 +212,8 @@ class WizardControllerTest {
 
     @Test
     void testAssignArtifactErrorWithNonExistentArtifactId() throws Exception {
-        doThrow(new ObjectNotFoundException("artifact", "1986"))
-                .when(this.wizardService).assignArtifact(3, "1986");
+        doThrow(new ObjectNotFoundException("artifact", 1986L))
+                .when(this.wizardService).assignArtifact(3, 1986L);
 
         this.mockMvc.perform(put(this.baseUrl + "/wizards/3/artifacts/1986")
                 .accept(MediaType.APPLICATION_JSON))
@@ -0,0 +1,104 @@
+package edu.tcu.cs.hogwartsartifactsonline.wizard;
+
+import edu.tcu.cs.hogwartsartifactsonline.system.StatusCode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@SpringBootTest(properties = {"wizard.large-ownership=true", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+@DisplayName("Integration tests for ownership changes in large ownership mode")
+@Tag("integration")
+public class WizardLargeOwnershipIntegrationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    WizardArtifactCountReconciler wizardArtifactCountReconciler;
+
+    String token;
+
+    @Value("${api.endpoint.base-url}")
+    String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MvcResult mvcResult = this.mockMvc.perform(post(this.baseUrl + "/users/login").with(httpBasic("john", "123456"))).andReturn();
+        JSONObject json = new JSONObject(mvcResult.getResponse().getContentAsString());
+        this.token = "Bearer " + json.getJSONObject("data").getString("token");
+    }
+
+    @Test
+    @DisplayName("Check assignArtifact never loads an artifact collection (PUT)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testAssignArtifactLoadsNoCollection() throws Exception {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/3/artifacts/11").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.message").value("Artifact Assignment Success"));
+
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(this.wizardArtifactCountReconciler.reconcile()).isEmpty();
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/3").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(2));
+    }
+
+    @Test
+    @DisplayName("Check assignArtifact with non-existent artifact Id (PUT)")
+    void testAssignArtifactErrorWithNonExistentArtifactId() throws Exception {
+        this.mockMvc.perform(put(this.baseUrl + "/wizards/1/artifacts/666").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.NOT_FOUND))
+                .andExpect(jsonPath("$.message").value("Could not find artifact with Id 666"));
+    }
+
+    @Test
+    @DisplayName("Check deleteArtifact never loads an artifact collection (DELETE)")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testDeleteArtifactLoadsNoCollection() throws Exception {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        this.mockMvc.perform(delete(this.baseUrl + "/artifacts/11").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.message").value("Delete Success"));
+
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(this.wizardArtifactCountReconciler.reconcile()).isEmpty();
+        this.mockMvc.perform(get(this.baseUrl + "/wizards/1").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.numberOfArtifacts").value(1));
+    }
+
+    @Test
+    @DisplayName("Check deleteArtifact with non-existent Id (DELETE)")
+    void testDeleteArtifactErrorWithNonExistentId() throws Exception {
+        this.mockMvc.perform(delete(this.baseUrl + "/artifacts/337").header("Authorization", this.token).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.NOT_FOUND))
+                .andExpect(jsonPath("$.message").value("Could not find artifact with Id 337"));
+    }
+}
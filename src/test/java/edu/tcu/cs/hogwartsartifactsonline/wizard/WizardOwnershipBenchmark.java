@@ -0,0 +1,90 @@
+package edu.tcu.cs.hogwartsartifactsonline.wizard;
+
+import edu.tcu.cs.hogwartsartifactsonline.HogwartsArtifactsOnlineApplication;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactService;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of moving one artifact away from a wizard and back while that wizard owns 10, 10k or 100k artifacts,
+ * through the Wizard.artifacts collection and in large ownership mode.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="WizardOwnershipBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WizardOwnershipBenchmark {
+
+    private static final int LARGE_WIZARD_ID = 1000;
+
+    private static final int OTHER_WIZARD_ID = 1001;
+
+    @Param({"10", "10000", "100000"})
+    public int ownedArtifacts;
+
+    @Param({"false", "true"})
+    public boolean largeOwnership;
+
+    private ConfigurableApplicationContext context;
+
+    private WizardService wizardService;
+
+    private ArtifactService artifactService;
+
+    private long movedArtifactId;
+
+    @Setup
+    public void setUp() {
+        // The security configuration needs a servlet context, so the application starts on a random port.
+        this.context = new SpringApplicationBuilder(HogwartsArtifactsOnlineApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:ownership-benchmark",
+                        "wizard.large-ownership=" + this.largeOwnership,
+                        "logging.level.root=WARN")
+                .run();
+        this.wizardService = this.context.getBean(WizardService.class);
+        this.artifactService = this.context.getBean(ArtifactService.class);
+
+        JdbcTemplate jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into wizard (id, name, artifact_count) values (?, 'Large', ?)", LARGE_WIZARD_ID, this.ownedArtifacts);
+        jdbcTemplate.update("insert into wizard (id, name, artifact_count) values (?, 'Other', 0)", OTHER_WIZARD_ID);
+        long[] ids = this.context.getBean(IdWorker.class).nextIds(this.ownedArtifacts);
+        List<Object[]> rows = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            rows.add(new Object[]{id, "Artifact " + id, LARGE_WIZARD_ID});
+        }
+        jdbcTemplate.batchUpdate("insert into artifact (id, name, description, image_url, owner_id) values (?, ?, 'desc', 'url', ?)", rows);
+        this.movedArtifactId = ids[0];
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public void moveAwayAndBack() {
+        this.wizardService.assignArtifact(OTHER_WIZARD_ID, this.movedArtifactId);
+        this.wizardService.assignArtifact(LARGE_WIZARD_ID, this.movedArtifactId);
+    }
+
+    @Benchmark
+    public void deleteFromLargeWizard() {
+        long artifactId = this.context.getBean(IdWorker.class).nextId();
+        this.context.getBean(JdbcTemplate.class).update(
+                "insert into artifact (id, name, description, image_url, owner_id) values (?, 'Temp', 'desc', 'url', ?)", artifactId, LARGE_WIZARD_ID);
+        this.context.getBean(JdbcTemplate.class).update("update wizard set artifact_count = artifact_count + 1 where id = ?", LARGE_WIZARD_ID);
+        this.artifactService.delete(artifactId);
+    }
+}
@@ -1,21 +1,33 @@
 package edu.tcu.cs.hogwartsartifactsonline.wizard;
 
 import edu.tcu.cs.hogwartsartifactsonline.artifact.Artifact;
+import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactChangedEvent;
 import edu.tcu.cs.hogwartsartifactsonline.artifact.ArtifactRepository;
-import edu.tcu.cs.hogwartsartifactsonline.artifact.utils.IdWorker;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorCodec;
+import edu.tcu.cs.hogwartsartifactsonline.system.CursorPage;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.InvalidCursorException;
 import edu.tcu.cs.hogwartsartifactsonline.system.exception.ObjectNotFoundException;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.PreconditionFailedException;
+import edu.tcu.cs.hogwartsartifactsonline.system.exception.UnsupportedSortException;
+import edu.tcu.cs.hogwartsartifactsonline.wizard.dto.WizardDto;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -32,13 +44,17 @@ class WizardServiceTest {
     @Mock
     ArtifactRepository artifactRepository;
 
-    @InjectMocks
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     WizardService wizardService;
 
     List<Wizard> wizards;
 
     @BeforeEach
     void setUp() {
+        this.wizardService = new WizardService(this.wizardRepository, this.artifactRepository, this.eventPublisher, false);
+
         Wizard wizard1 = new Wizard();
         wizard1.setId(1985);
         wizard1.setName("Harry");
@@ -95,17 +111,87 @@ class WizardServiceTest {
         verify(this.wizardRepository, times(1)).findAll();
     }
 
+    @Test
+    void testFindPageByNameWithNextPage() {
+        given(this.wizardRepository.findDtosOrderByName(PageRequest.of(0, 2))).willReturn(List.of(
+                new WizardDto(1, "Albus", 2, 0), new WizardDto(2, "Harry", 2, 0)));
+
+        CursorPage<WizardDto> page = this.wizardService.findPage(null, 1, "name");
+
+        assertThat(page.content()).extracting(WizardDto::name).containsExactly("Albus");
+        assertThat(CursorCodec.decode(page.next(), 3)).containsExactly("name", "Albus", "1");
+    }
+
+    @Test
+    void testFindPageByNumberOfArtifactsAfterCursor() {
+        String cursor = CursorCodec.encode("numberOfArtifacts", "1", "3");
+        given(this.wizardRepository.findDtosOrderByArtifactCountAfter(1, 3, PageRequest.of(0, 21))).willReturn(List.of(
+                new WizardDto(1, "Albus", 2, 0), new WizardDto(2, "Harry", 2, 0)));
+
+        CursorPage<WizardDto> page = this.wizardService.findPage(cursor, 20, "numberOfArtifacts");
+
+        assertThat(page.content()).hasSize(2);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void testFindPageRejectsCursorOfAnotherSort() {
+        String cursor = CursorCodec.encode("name", "Albus", "1");
+
+        assertThrows(InvalidCursorException.class, () -> this.wizardService.findPage(cursor, 20, "numberOfArtifacts"));
+    }
+
+    @Test
+    void testFindPageUnsupportedSort() {
+        Throwable thrown = catchThrowable(() -> this.wizardService.findPage(null, 20, "color"));
+
+        assertThat(thrown)
+                .isInstanceOf(UnsupportedSortException.class)
+                .hasMessage("Cannot sort by color");
+    }
+
+    @Test
+    void testFindArtifactsSuccess() {
+        Artifact artifact = new Artifact();
+        artifact.setId(1985L);
+        PageRequest pageable = PageRequest.of(0, 20);
+        given(this.wizardRepository.existsById(1)).willReturn(true);
+        given(this.artifactRepository.findByOwnerId(1, pageable)).willReturn(new PageImpl<>(List.of(artifact), pageable, 1));
+
+        Page<Artifact> page = this.wizardService.findArtifacts(1, pageable);
+
+        assertThat(page.getContent()).containsExactly(artifact);
+        verify(this.wizardRepository, never()).findById(any());
+    }
+
+    @Test
+    void testFindArtifactsNotFound() {
+        given(this.wizardRepository.existsById(5)).willReturn(false);
+
+        Throwable thrown = catchThrowable(() -> this.wizardService.findArtifacts(5, PageRequest.of(0, 20)));
+
+        assertThat(thrown)
+                .isInstanceOf(ObjectNotFoundException.class)
+                .hasMessage("Could not find wizard with Id 5");
+        verify(this.artifactRepository, never()).findByOwnerId(any(), any());
+    }
+
     @Test
     void testSaveSuccess() {
         Wizard newWizard = new Wizard();
         newWizard.setName("Tamisa");
 
-        given(this.wizardRepository.save(newWizard)).willReturn(newWizard);
+        Wizard persistedWizard = new Wizard();
+        persistedWizard.setId(4);
+        persistedWizard.setName("Tamisa");
+
+        given(this.wizardRepository.save(newWizard)).willReturn(persistedWizard);
 
         Wizard savedWizard = this.wizardService.save(newWizard);
 
         assertThat(savedWizard.getName()).isEqualTo(newWizard.getName());
         verify(this.wizardRepository, times(1)).save(newWizard);
+        verify(this.eventPublisher, times(1)).publishEvent(new WizardChangedEvent(List.of(4)));
     }
 
     @Test
@@ -120,12 +206,13 @@ class WizardServiceTest {
         given(this.wizardRepository.findById(100)).willReturn(Optional.of(oldWizard));
         given(this.wizardRepository.save(oldWizard)).willReturn(oldWizard);
 
-        Wizard updatedWizard = this.wizardService.update(100, update);
+        Wizard updatedWizard = this.wizardService.update(100, update, null);
 
         assertThat(updatedWizard.getId()).isEqualTo(100);
         assertThat(updatedWizard.getName()).isEqualTo(update.getName());
         verify(this.wizardRepository, times(1)).findById(100);
         verify(this.wizardRepository, times(1)).save(oldWizard);
+        verify(this.eventPublisher, times(1)).publishEvent(new WizardChangedEvent(List.of(100)));
     }
 
     @Test
@@ -136,37 +223,86 @@ class WizardServiceTest {
         given(this.wizardRepository.findById(100)).willReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () -> {
-            this.wizardService.update(100, update);
+            this.wizardService.update(100, update, null);
         });
         verify(this.wizardRepository, times(1)).findById(100);
     }
 
     @Test
-    void testDeleteSuccess() {
-        Wizard wizard = new Wizard();
-        wizard.setId(100);
-        wizard.setName("Alana");
+    void testUpdateStaleVersion() {
+        Wizard oldWizard = new Wizard();
+        oldWizard.setId(100);
+        oldWizard.setName("Tamisa");
+        oldWizard.setVersion(3);
 
-        given(this.wizardRepository.findById(100)).willReturn(Optional.of(wizard));
-        doNothing().when(this.wizardRepository).deleteById(100);
+        Wizard update = new Wizard();
+        update.setName("Alana");
+
+        given(this.wizardRepository.findById(100)).willReturn(Optional.of(oldWizard));
+
+        Throwable thrown = catchThrowable(() -> this.wizardService.update(100, update, 2));
+
+        assertThat(thrown)
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage("The wizard with Id 100 has changed since it was read");
+        verify(this.wizardRepository, never()).save(any(Wizard.class));
+        verifyNoInteractions(this.eventPublisher);
+    }
+
+    @Test
+    void testDeleteSuccess() {
+        given(this.artifactRepository.unassignAllFromOwner(100)).willReturn(2);
+        given(this.wizardRepository.deleteWizardById(100)).willReturn(1);
 
         this.wizardService.delete(100);
-        verify(this.wizardRepository, times(1)).deleteById(100);
+
+        InOrder inOrder = inOrder(this.artifactRepository, this.wizardRepository);
+        inOrder.verify(this.artifactRepository).unassignAllFromOwner(100);
+        inOrder.verify(this.wizardRepository).deleteWizardById(100);
+        verify(this.wizardRepository, never()).findById(100);
     }
 
     @Test
     void testDeleteNotFound() {
-        given(this.wizardRepository.findById(100)).willReturn(Optional.empty());
+        given(this.wizardRepository.deleteWizardById(100)).willReturn(0);
 
         assertThrows(ObjectNotFoundException.class, () -> this.wizardService.delete(100));
 
-        verify(this.wizardRepository, times(1)).findById(100);
+        verify(this.wizardRepository, times(1)).deleteWizardById(100);
+    }
+
+    @Test
+    void testTransferArtifactsSuccess() {
+        Wizard newOwner = new Wizard();
+        newOwner.setId(2);
+        given(this.wizardRepository.takeOverArtifactCount(2, 1)).willReturn(1);
+        given(this.wizardRepository.releaseAllArtifacts(1)).willReturn(1);
+        given(this.wizardRepository.getReferenceById(2)).willReturn(newOwner);
+        given(this.artifactRepository.transferAllFromOwner(1, newOwner)).willReturn(3);
+
+        int transferred = this.wizardService.transferArtifacts(1, 2);
+
+        assertThat(transferred).isEqualTo(3);
+        verify(this.eventPublisher, times(1)).publishEvent(ArtifactChangedEvent.ofOwner(1));
+        verify(this.eventPublisher, times(1)).publishEvent(new WizardChangedEvent(List.of(1, 2)));
+    }
+
+    @Test
+    void testTransferArtifactsErrorWithNonExistentNewOwner() {
+        given(this.wizardRepository.takeOverArtifactCount(5, 1)).willReturn(0);
+
+        Throwable thrown = catchThrowable(() -> this.wizardService.transferArtifacts(1, 5));
+
+        assertThat(thrown)
+                .isInstanceOf(ObjectNotFoundException.class)
+                .hasMessage("Could not find wizard with Id 5");
+        verify(this.artifactRepository, never()).transferAllFromOwner(any(), any());
     }
 
     @Test
     void testAssignArtifactSuccess() {
         Artifact artifact = new Artifact();
-        artifact.setId("1985");
+        artifact.setId(1985L);
         artifact.setName("Cloak");
         artifact.setDescription("Update");
         artifact.setImageUrl("imageUrl");
@@ -180,19 +316,23 @@ class WizardServiceTest {
         wizard3.setId(3);
         wizard3.setName("Alana");
 
-        given(this.artifactRepository.findById("1985")).willReturn(Optional.of(artifact));
+        given(this.artifactRepository.findById(1985L)).willReturn(Optional.of(artifact));
         given(this.wizardRepository.findById(3)).willReturn(Optional.of(wizard3));
 
-        this.wizardService.assignArtifact(3, "1985");
+        this.wizardService.assignArtifact(3, 1985L);
 
         assertThat(artifact.getOwner().getId()).isEqualTo(3);
         assertThat(wizard3.getArtifacts()).contains(artifact);
+        assertThat(wizard3.getNumberOfArtifacts()).isEqualTo(1);
+        assertThat(wizard2.getNumberOfArtifacts()).isZero();
+        verify(this.eventPublisher, times(1)).publishEvent(ArtifactChangedEvent.ofArtifacts(List.of(1985L)));
+        verify(this.eventPublisher, times(1)).publishEvent(new WizardChangedEvent(List.of(3, 2)));
     }
 
     @Test
     void testAssignArtifactErrorWithNonExistentWizardId() {
         Artifact artifact = new Artifact();
-        artifact.setId("1985");
+        artifact.setId(1985L);
         artifact.setName("Cloak");
         artifact.setDescription("Update");
         artifact.setImageUrl("imageUrl");
@@ -202,11 +342,11 @@ class WizardServiceTest {
         wizard2.setName("Alana");
         wizard2.addArtifact(artifact);
 
-        given(this.artifactRepository.findById("1985")).willReturn(Optional.of(artifact));
+        given(this.artifactRepository.findById(1985L)).willReturn(Optional.of(artifact));
         given(this.wizardRepository.findById(3)).willReturn(Optional.empty());
 
         Throwable thrown = assertThrows(ObjectNotFoundException.class, () -> {
-            this.wizardService.assignArtifact(3, "1985");
+            this.wizardService.assignArtifact(3, 1985L);
         });
 
         assertThat(thrown).isInstanceOf(ObjectNotFoundException.class)
@@ -217,13 +357,58 @@ class WizardServiceTest {
     @Test
     void testAssignArtifactErrorWithNonExistentArtifactId() {
 
-        given(this.artifactRepository.findById("1985")).willReturn(Optional.empty());
+        given(this.artifactRepository.findById(1985L)).willReturn(Optional.empty());
 
         Throwable thrown = assertThrows(ObjectNotFoundException.class, () -> {
-            this.wizardService.assignArtifact(3, "1985");
+            this.wizardService.assignArtifact(3, 1985L);
         });
 
         assertThat(thrown).isInstanceOf(ObjectNotFoundException.class)
                 .hasMessage("Could not find artifact with Id 1985");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAssignArtifactsSuccess() {
+        Wizard wizard = new Wizard();
+        wizard.setId(3);
+        Set<Long> artifactIds = new LinkedHashSet<>(List.of(1985L, 1986L));
+        given(this.artifactRepository.findIdsByIdIn(artifactIds)).willReturn(List.of(1985L, 1986L));
+        given(this.wizardRepository.addToArtifactCount(3, 2)).willReturn(1);
+        given(this.wizardRepository.getReferenceById(3)).willReturn(wizard);
+        given(this.artifactRepository.assignAllToOwner(artifactIds, wizard)).willReturn(2);
+
+        int assigned = this.wizardService.assignArtifacts(3, List.of(1985L, 1986L, 1985L));
+
+        assertThat(assigned).isEqualTo(2);
+        verify(this.wizardRepository, times(1)).releaseArtifacts(artifactIds);
+        verify(this.artifactRepository, never()).findById(any());
+    }
+
+    @Test
+    void testAssignArtifactsErrorWithNonExistentArtifactId() {
+        given(this.artifactRepository.findIdsByIdIn(Set.of(1985L, 1986L))).willReturn(List.of(1985L));
+
+        Throwable thrown = catchThrowable(() -> this.wizardService.assignArtifacts(3, List.of(1985L, 1986L)));
+
+        assertThat(thrown)
+                .isInstanceOf(ObjectNotFoundException.class)
+                .hasMessage("Could not find artifact with Id 1986");
+        verify(this.wizardRepository, never()).addToArtifactCount(any(), anyInt());
+    }
+
+    @Test
+    void testAssignArtifactWithLargeOwnershipLeavesCollectionsAlone() {
+        this.wizardService = new WizardService(this.wizardRepository, this.artifactRepository, this.eventPublisher, true);
+        Wizard wizard = new Wizard();
+        wizard.setId(3);
+        given(this.artifactRepository.findIdsByIdIn(Set.of(1985L))).willReturn(List.of(1985L));
+        given(this.wizardRepository.addToArtifactCount(3, 1)).willReturn(1);
+        given(this.wizardRepository.getReferenceById(3)).willReturn(wizard);
+
+        this.wizardService.assignArtifact(3, 1985L);
+
+        verify(this.artifactRepository, times(1)).assignAllToOwner(Set.of(1985L), wizard);
+        verify(this.artifactRepository, never()).findById(any());
+        verify(this.wizardRepository, never()).findById(any());
+    }
+}